@@ -0,0 +1,31 @@
+package com.y3s1.we15.skillsharingplatform.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables @Async so denormalization and cleanup jobs run off the request
+ * thread on Spring Boot's auto-configured task executor, and @Scheduled for
+ * periodic flushes and maintenance jobs.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Boot's scheduler has a single thread by default, which would let an
+     * hour-long reconcile or cascade pass hold up the one-second like counter
+     * flush. Several threads keep the short jobs on time.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder,
+                                                 @Value("${spring.task.scheduling.pool.size:4}") int poolSize) {
+        return builder.poolSize(poolSize).build();
+    }
+}
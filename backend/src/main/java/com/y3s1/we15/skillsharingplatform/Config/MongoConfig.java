@@ -4,8 +4,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.slf4j.Logger;
@@ -28,12 +30,21 @@ public class MongoConfig {
         return new SimpleMongoClientDatabaseFactory(MongoClients.create(mongoUri), "skillsharing");
     }
 
+    // Saves keep @ReadOnlyProperty fields such as counters and token versions
     @Bean
     public MongoTemplate mongoTemplate() {
-        mongoTemplate = new MongoTemplate(mongoDatabaseFactory());
+        mongoTemplate = new ReadOnlyAwareMongoTemplate(mongoDatabaseFactory());
         return mongoTemplate;
     }
     
+    // Multi-document transactions need a replica set or sharded cluster, so they are opt-in
+    @Bean
+    @ConditionalOnProperty(name = "mongodb.transactions.enabled", havingValue = "true")
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory mongoDatabaseFactory) {
+        logger.info("MongoDB multi-document transactions enabled");
+        return new MongoTransactionManager(mongoDatabaseFactory);
+    }
+
     @EventListener(ApplicationReadyEvent.class)
     public void logConnectionStatus() {
         try {
@@ -0,0 +1,156 @@
+package com.y3s1.we15.skillsharingplatform.Config;
+
+import com.y3s1.we15.skillsharingplatform.Models.CascadeDeleteJob;
+import com.y3s1.we15.skillsharingplatform.Models.ChatBox;
+import com.y3s1.we15.skillsharingplatform.Models.Comment;
+import com.y3s1.we15.skillsharingplatform.Models.ConversationSummary;
+import com.y3s1.we15.skillsharingplatform.Models.FollowEdge;
+import com.y3s1.we15.skillsharingplatform.Models.Like;
+import com.y3s1.we15.skillsharingplatform.Models.Notification;
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Models.ProgressComment;
+import com.y3s1.we15.skillsharingplatform.Models.TimelineEntry;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+/**
+ * Creates the indexes that back our paginated queries. Automatic index creation
+ * is off in Spring Data MongoDB, so they are ensured explicitly on startup
+ * (ensureIndex is a no-op when the index already exists).
+ */
+@Configuration
+public class MongoIndexConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            IndexOperations posts = mongoTemplate.indexOps(mongoTemplate.getCollectionName(Post.class));
+            // Post feed: newest first, _id as tie-breaker for stable keyset paging
+            posts.ensureIndex(new Index()
+                    .on("createdAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named("createdAt_id"));
+            posts.ensureIndex(new Index()
+                    .on("category", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named("category_createdAt_id"));
+            posts.ensureIndex(new Index()
+                    .on("author.id", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named("author_createdAt_id"));
+
+            IndexOperations comments = mongoTemplate.indexOps(mongoTemplate.getCollectionName(Comment.class));
+            // Comment threads: oldest first, _id as tie-breaker
+            comments.ensureIndex(new Index()
+                    .on("postId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named("postId_createdAt_id"));
+
+            IndexOperations timelines = mongoTemplate.indexOps(mongoTemplate.getCollectionName(TimelineEntry.class));
+            // Home feed: one range scan per page, postId as tie-breaker
+            timelines.ensureIndex(new Index()
+                    .on("ownerId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.DESC)
+                    .on("postId", Sort.Direction.DESC)
+                    .named("ownerId_createdAt_postId"));
+            // Keeps fan-out idempotent and serves unfollow cleanup
+            timelines.ensureIndex(new Index()
+                    .on("ownerId", Sort.Direction.ASC)
+                    .on("postId", Sort.Direction.ASC)
+                    .unique()
+                    .named("ownerId_postId"));
+            timelines.ensureIndex(new Index()
+                    .on("postId", Sort.Direction.ASC)
+                    .named("postId"));
+
+            IndexOperations progressComments = mongoTemplate.indexOps(mongoTemplate.getCollectionName(ProgressComment.class));
+            // Top-level comments of a progress update, oldest first
+            progressComments.ensureIndex(new Index()
+                    .on("progressId", Sort.Direction.ASC)
+                    .on("parentCommentId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .on("_id", Sort.Direction.ASC)
+                    .named("progressId_parentCommentId_createdAt_id"));
+            // Reply previews and counts per thread
+            progressComments.ensureIndex(new Index()
+                    .on("rootId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .named("rootId_createdAt"));
+            // Subtree reads under any comment
+            progressComments.ensureIndex(new Index()
+                    .on("ancestorIds", Sort.Direction.ASC)
+                    .named("ancestorIds"));
+
+            // Cascade deletes look dependents up by post; comments are covered by postId_createdAt_id
+            mongoTemplate.indexOps(mongoTemplate.getCollectionName(Like.class)).ensureIndex(new Index()
+                    .on("postId", Sort.Direction.ASC)
+                    .named("postId"));
+            mongoTemplate.indexOps(mongoTemplate.getCollectionName(Notification.class)).ensureIndex(new Index()
+                    .on("postId", Sort.Direction.ASC)
+                    .named("postId"));
+            // Worker polling: due jobs by status and next attempt
+            mongoTemplate.indexOps(mongoTemplate.getCollectionName(CascadeDeleteJob.class)).ensureIndex(new Index()
+                    .on("status", Sort.Direction.ASC)
+                    .on("nextAttemptAt", Sort.Direction.ASC)
+                    .named("status_nextAttemptAt"));
+
+            IndexOperations follows = mongoTemplate.indexOps(mongoTemplate.getCollectionName(FollowEdge.class));
+            // One edge per pair; also serves following lists, paged by followee
+            follows.ensureIndex(new Index()
+                    .on("followerId", Sort.Direction.ASC)
+                    .on("followeeId", Sort.Direction.ASC)
+                    .unique()
+                    .named("followerId_followeeId"));
+            // Follower lists and fan-out, paged by follower
+            follows.ensureIndex(new Index()
+                    .on("followeeId", Sort.Direction.ASC)
+                    .on("followerId", Sort.Direction.ASC)
+                    .named("followeeId_followerId"));
+            // Celebrity lookups for read-time timeline merging
+            mongoTemplate.indexOps(mongoTemplate.getCollectionName(UserModel.class)).ensureIndex(new Index()
+                    .on("followerCount", Sort.Direction.DESC)
+                    .named("followerCount"));
+
+            IndexOperations messages = mongoTemplate.indexOps(mongoTemplate.getCollectionName(ChatBox.class));
+            // A conversation's messages in order
+            messages.ensureIndex(new Index()
+                    .on("conversationId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .named("conversationId_createdAt"));
+            // Everything a user sent or received, one index per side of the $or
+            messages.ensureIndex(new Index()
+                    .on("senderId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .named("senderId_createdAt"));
+            messages.ensureIndex(new Index()
+                    .on("recipientId", Sort.Direction.ASC)
+                    .on("createdAt", Sort.Direction.ASC)
+                    .named("recipientId_createdAt"));
+            // Recent chats: a user's conversations, latest activity first
+            mongoTemplate.indexOps(mongoTemplate.getCollectionName(ConversationSummary.class)).ensureIndex(new Index()
+                    .on("participantIds", Sort.Direction.ASC)
+                    .on("lastMessageAt", Sort.Direction.DESC)
+                    .on("_id", Sort.Direction.DESC)
+                    .named("participantIds_lastMessageAt"));
+            logger.info("MongoDB indexes ensured");
+        } catch (Exception e) {
+            logger.error("Failed to ensure MongoDB indexes: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.y3s1.we15.skillsharingplatform.Config;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Security.PrincipalCache;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the cached principal of a user once a save has landed, so role and
+ * password changes apply to the next request rather than after the TTL.
+ * Evicts by id as well as by name so a renamed user's old name stops working.
+ */
+@Component
+public class PrincipalEvictionCallback implements AfterSaveCallback<UserModel> {
+
+    private final PrincipalCache principalCache;
+
+    public PrincipalEvictionCallback(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    public UserModel onAfterSave(UserModel user, Document document, String collection) {
+        principalCache.invalidateUser(user.getId());
+        principalCache.invalidate(user.getUsername());
+        return user;
+    }
+}
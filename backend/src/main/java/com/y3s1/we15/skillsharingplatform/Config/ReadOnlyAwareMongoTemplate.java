@@ -0,0 +1,67 @@
+package com.y3s1.we15.skillsharingplatform.Config;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.model.UpdateOptions;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * MongoTemplate whose save keeps the stored value of every
+ * {@code @ReadOnlyProperty}. A plain save replaces the whole document, and
+ * since read-only properties are never written, each full save of a user
+ * would drop counters and versions that are only moved with $inc.
+ *
+ * For entities with such properties the replace becomes a single pipeline
+ * update that merges the new document with the stored read-only fields, so
+ * it stays atomic and never writes back a value read earlier. Everything
+ * else, including entity callbacks around the save, is unchanged.
+ */
+public class ReadOnlyAwareMongoTemplate extends MongoTemplate {
+
+    public ReadOnlyAwareMongoTemplate(MongoDatabaseFactory mongoDbFactory) {
+        super(mongoDbFactory);
+    }
+
+    public ReadOnlyAwareMongoTemplate(MongoClient mongoClient, String databaseName) {
+        super(mongoClient, databaseName);
+    }
+
+    @Override
+    protected Object saveDocument(String collectionName, Document document, Class<?> entityClass) {
+        Object id = document.get("_id");
+        Document stored = id != null ? readOnlyFields(entityClass) : null;
+        if (stored == null) {
+            return super.saveDocument(collectionName, document, entityClass);
+        }
+
+        // $literal keeps values such as bcrypt hashes, which start with "$", from being read as field paths
+        Document replaceWith = new Document("$replaceWith", new Document("$mergeObjects",
+                Arrays.asList(new Document("$literal", document), stored)));
+        return execute(collectionName, collection -> {
+            collection.updateOne(new Document("_id", id), Collections.singletonList(replaceWith),
+                    new UpdateOptions().upsert(true));
+            return id;
+        });
+    }
+
+    // {field: "$field"} for each read-only property, or null if the entity has none
+    private Document readOnlyFields(Class<?> entityClass) {
+        MongoPersistentEntity<?> entity = getConverter().getMappingContext().getPersistentEntity(entityClass);
+        if (entity == null) {
+            return null;
+        }
+        Document fields = new Document();
+        for (MongoPersistentProperty property : entity) {
+            if (!property.isWritable() && !property.isTransient()) {
+                fields.append(property.getFieldName(), "$" + property.getFieldName());
+            }
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+}
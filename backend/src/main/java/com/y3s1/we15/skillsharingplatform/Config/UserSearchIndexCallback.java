@@ -0,0 +1,27 @@
+package com.y3s1.we15.skillsharingplatform.Config;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Service.UserSearchIndex;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reindexes a user for people search once a save has landed, so sign-ups
+ * and name changes are searchable straight away.
+ */
+@Component
+public class UserSearchIndexCallback implements AfterSaveCallback<UserModel> {
+
+    private final UserSearchIndex userSearchIndex;
+
+    public UserSearchIndexCallback(UserSearchIndex userSearchIndex) {
+        this.userSearchIndex = userSearchIndex;
+    }
+
+    @Override
+    public UserModel onAfterSave(UserModel user, Document document, String collection) {
+        userSearchIndex.index(user);
+        return user;
+    }
+}
@@ -0,0 +1,27 @@
+package com.y3s1.we15.skillsharingplatform.Config;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Service.UserSummaryService;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the cached summary of a user once a save has landed, so a profile
+ * edit shows up in author lists without waiting for the cache TTL.
+ */
+@Component
+public class UserSummaryEvictionCallback implements AfterSaveCallback<UserModel> {
+
+    private final UserSummaryService userSummaryService;
+
+    public UserSummaryEvictionCallback(UserSummaryService userSummaryService) {
+        this.userSummaryService = userSummaryService;
+    }
+
+    @Override
+    public UserModel onAfterSave(UserModel user, Document document, String collection) {
+        userSummaryService.invalidate(user.getId());
+        return user;
+    }
+}
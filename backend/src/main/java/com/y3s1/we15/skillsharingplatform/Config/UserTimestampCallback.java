@@ -0,0 +1,32 @@
+package com.y3s1.we15.skillsharingplatform.Config;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Service.CollectionVersions;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertCallback;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stamps updatedAt on every save of a user. Users are saved from many places
+ * (profile edits, role changes, login), and the profile ETag relies on
+ * updatedAt moving with each of them. Follow counts change through $inc
+ * instead and are carried in the tag separately. Progress updates embed their user
+ * through a DBRef, so progress listings change along with it.
+ */
+@Component
+public class UserTimestampCallback implements BeforeConvertCallback<UserModel> {
+
+    private final CollectionVersions collectionVersions;
+
+    public UserTimestampCallback(CollectionVersions collectionVersions) {
+        this.collectionVersions = collectionVersions;
+    }
+
+    @Override
+    public UserModel onBeforeConvert(UserModel user, String collection) {
+        user.setUpdatedAt(LocalDateTime.now());
+        collectionVersions.bump(CollectionVersions.PROGRESS);
+        return user;
+    }
+}
@@ -16,6 +16,7 @@ public class WebConfig implements WebMvcConfigurer {
             .allowedOrigins("http://localhost:3000") // YOUR FRONTEND URL
             .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS") // MUST INCLUDE PATCH and OPTIONS
             .allowedHeaders("*") // Allows all headers, or you can be specific: "Authorization", "Content-Type", etc.
+            .exposedHeaders("X-Next-Cursor", "X-Total-Count", "ETag") // Lets the frontend read paging headers and ETags
             .allowCredentials(true) // If you handle cookies or basic auth credentials
             .maxAge(3600); // How long the results of a preflight request can be cached
     }
@@ -119,4 +119,78 @@ public class AdminController {
     public ResponseEntity<?> deleteComment(@PathVariable String commentId) {
         return adminService.deleteComment(commentId);
     }
-} 
\ No newline at end of file
+
+    /**
+     * Post search index size and query latency
+     * @return Index statistics
+     */
+    @GetMapping("/search/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getSearchIndexStats() {
+        return adminService.getSearchIndexStats();
+    }
+
+    /**
+     * People search index size and query latency
+     * @return Index statistics
+     */
+    @GetMapping("/search/users/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getUserSearchIndexStats() {
+        return adminService.getUserSearchIndexStats();
+    }
+
+    /**
+     * Post cache size, hit rate and evictions
+     * @return Cache statistics
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPostCacheStats() {
+        return adminService.getPostCacheStats();
+    }
+
+    /**
+     * Size and hit rate of the cache that authenticates token requests
+     * @return Cache statistics
+     */
+    @GetMapping("/principals/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getPrincipalCacheStats() {
+        return adminService.getPrincipalCacheStats();
+    }
+
+    /**
+     * Cascade delete job counts by status and orphaned documents found by the last scan
+     * @return Cascade delete statistics
+     */
+    @GetMapping("/cascade/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCascadeDeleteStats() {
+        return adminService.getCascadeDeleteStats();
+    }
+
+    /**
+     * Recent cascade delete jobs with per-collection progress
+     * @param status Only jobs in this status, if given
+     * @param limit Maximum number of jobs to return
+     * @return Jobs, newest first
+     */
+    @GetMapping("/cascade/jobs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getCascadeDeleteJobs(@RequestParam(required = false) String status,
+                                                  @RequestParam(defaultValue = "50") int limit) {
+        return adminService.getCascadeDeleteJobs(status, limit);
+    }
+
+    /**
+     * Puts a failed cascade delete job back in the queue
+     * @param jobId ID of the failed job
+     * @return Response with success or error message
+     */
+    @PostMapping("/cascade/jobs/{jobId}/retry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> retryCascadeDeleteJob(@PathVariable String jobId) {
+        return adminService.retryCascadeDeleteJob(jobId);
+    }
+}
\ No newline at end of file
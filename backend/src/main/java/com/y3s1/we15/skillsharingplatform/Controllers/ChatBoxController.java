@@ -1,6 +1,7 @@
 package com.y3s1.we15.skillsharingplatform.Controllers;
 
 import com.y3s1.we15.skillsharingplatform.Models.ChatBox;
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Service.ChatBoxService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -49,8 +50,34 @@ public class ChatBoxController {
         return ResponseEntity.ok(chatBoxService.getUserMessages(userId));
     }
     
+    @PutMapping("/messages/{userId}/read")
+    public ResponseEntity<Void> markConversationRead(
+            @PathVariable String userId,
+            @RequestParam String otherUserId) {
+        chatBoxService.markConversationRead(userId, otherUserId);
+        return ResponseEntity.ok().build();
+    }
+    
+    /**
+     * Conversations, most recently active first, with the partner, last
+     * message and unread count. The body stays a plain array; the next
+     * cursor travels in the X-Next-Cursor header.
+     */
     @GetMapping("/users/{userId}/recent")
-    public ResponseEntity<List<Map<String, Object>>> getRecentChats(@PathVariable String userId) {
-        return ResponseEntity.ok(chatBoxService.getRecentChats(userId));
+    public ResponseEntity<?> getRecentChats(
+            @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        CursorPage<Map<String, Object>> page;
+        try {
+            page = chatBoxService.getRecentChats(userId, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasMore()) {
+            response.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 } 
\ No newline at end of file
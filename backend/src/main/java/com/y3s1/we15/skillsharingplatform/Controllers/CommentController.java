@@ -1,22 +1,19 @@
 package com.y3s1.we15.skillsharingplatform.Controllers;
 
 import com.y3s1.we15.skillsharingplatform.Models.Comment;
-import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Models.Notification;
 import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Security.CurrentUser;
+import com.y3s1.we15.skillsharingplatform.Security.UserPrincipal;
 import com.y3s1.we15.skillsharingplatform.Service.CommentService;
 import com.y3s1.we15.skillsharingplatform.Service.PostService;
-import com.y3s1.we15.skillsharingplatform.Service.UserService;
 import com.y3s1.we15.skillsharingplatform.Service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpSession;
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -24,6 +21,9 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class CommentController {
 
+    // Total number of comments on the post, independent of the page returned
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     @Autowired
     private CommentService commentService;
 
@@ -31,26 +31,16 @@ public class CommentController {
     private PostService postService;
     
     @Autowired
-    private UserService userService;
+    private CurrentUser currentUser;
 
     @Autowired
     private NotificationService notificationService;
 
     @PostMapping
     public ResponseEntity<?> addComment(@RequestBody Comment comment, HttpSession session) {
-        // Get user from security context instead of session
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated() || 
-            authentication.getPrincipal().equals("anonymousUser")) {
-            return ResponseEntity.status(401).body("User must be logged in to add comments");
-        }
-        
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        UserModel user = userService.findByUsername(userDetails.getUsername());
-        
+        UserPrincipal user = currentUser.get();
         if (user == null) {
-            return ResponseEntity.status(401).body("User not found");
+            return ResponseEntity.status(401).body("User must be logged in to add comments");
         }
         
         comment.setUserId(user.getId());
@@ -60,7 +50,7 @@ public class CommentController {
         Optional<Post> post = postService.getPostById(comment.getPostId());
         if (post.isPresent() && !post.get().getUser().getId().equals(user.getId())) {
             String content = String.format("%s commented on your post: %s", 
-                user.getFirstName() + " " + user.getLastName(), 
+                currentUser.getSummary().getFirstName() + " " + currentUser.getSummary().getLastName(), 
                 post.get().getTitle());
             notificationService.createNotification(
                 post.get().getUser().getId(),
@@ -75,62 +65,28 @@ public class CommentController {
     }
 
     @GetMapping("/post/{postId}")
-    public ResponseEntity<?> getCommentsByPost(@PathVariable String postId, HttpSession session) {
-        List<Comment> comments = commentService.getCommentsByPost(postId);
-        
-        // If there are no comments, just return an empty list
-        if (comments.isEmpty()) {
-            return ResponseEntity.ok(comments);
-        }
-        
+    public ResponseEntity<?> getCommentsByPost(@PathVariable String postId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        // Comments are public, so the page is the same for every viewer
+        CursorPage<Comment> page;
         try {
-            // Get user from security context
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication != null && authentication.isAuthenticated() && 
-                !authentication.getPrincipal().equals("anonymousUser")) {
-                
-                UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-                UserModel user = userService.findByUsername(userDetails.getUsername());
-                
-                if (user != null) {
-                    // If user is logged in and is the post owner, return all comments with full details
-                    Optional<Comment> firstComment = comments.stream().findFirst();
-                    if (firstComment.isPresent()) {
-                        try {
-                            String postUserId = firstComment.get().getPostId();
-                            if (postService.isPostOwner(postUserId, user.getId())) {
-                                return ResponseEntity.ok(comments);
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Error checking post ownership: " + e.getMessage());
-                            return ResponseEntity.ok(e.getMessage());
-                            // If there's any error checking post ownership, just continue
-                            // and return the comments as a regular user
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // If there's any error in authentication check, log it but still return comments
-            System.err.println("Error checking authentication for comments: " + e.getMessage());
+            page = commentService.getCommentsPage(postId, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        
-        // For anonymous users or non-post owners, still return the comments
-        return ResponseEntity.ok(comments);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(commentService.countCommentsByPost(postId)));
+        if (page.hasMore()) {
+            response.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getCommentById(@PathVariable String id, HttpSession session) {
-        // Get user from security context
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserModel user = null;
-        
-        if (authentication != null && authentication.isAuthenticated() && 
-            !authentication.getPrincipal().equals("anonymousUser")) {
-            
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            user = userService.findByUsername(userDetails.getUsername());
-        }
+        UserPrincipal user = currentUser.get();
         
         Optional<Comment> comment = commentService.getCommentById(id);
         
@@ -146,19 +102,9 @@ public class CommentController {
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateComment(@PathVariable String id, @RequestBody Comment updatedComment, HttpSession session) {
-        // Get user from security context
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated() || 
-            authentication.getPrincipal().equals("anonymousUser")) {
-            return ResponseEntity.status(401).body("User must be logged in to update comments");
-        }
-        
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        UserModel user = userService.findByUsername(userDetails.getUsername());
-        
+        UserPrincipal user = currentUser.get();
         if (user == null) {
-            return ResponseEntity.status(401).body("User not found");
+            return ResponseEntity.status(401).body("User must be logged in to update comments");
         }
 
         Optional<Comment> existingComment = commentService.getCommentById(id);
@@ -176,19 +122,9 @@ public class CommentController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteComment(@PathVariable String id, HttpSession session) {
-        // Get user from security context
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated() || 
-            authentication.getPrincipal().equals("anonymousUser")) {
-            return ResponseEntity.status(401).body("User must be logged in to delete comments");
-        }
-        
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        UserModel user = userService.findByUsername(userDetails.getUsername());
-        
+        UserPrincipal user = currentUser.get();
         if (user == null) {
-            return ResponseEntity.status(401).body("User not found");
+            return ResponseEntity.status(401).body("User must be logged in to delete comments");
         }
 
         Optional<Comment> comment = commentService.getCommentById(id);
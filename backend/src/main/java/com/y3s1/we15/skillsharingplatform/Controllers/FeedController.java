@@ -0,0 +1,63 @@
+package com.y3s1.we15.skillsharingplatform.Controllers;
+
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
+import com.y3s1.we15.skillsharingplatform.Models.PostListItem;
+import com.y3s1.we15.skillsharingplatform.Security.CurrentUser;
+import com.y3s1.we15.skillsharingplatform.Service.PostService;
+import com.y3s1.we15.skillsharingplatform.Service.TimelineService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/feed")
+@CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
+public class FeedController {
+
+    private final TimelineService timelineService;
+    private final PostService postService;
+    private final CurrentUser currentUser;
+
+    @Value("${posts.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${posts.page.max-size:100}")
+    private int maxPageSize;
+
+    public FeedController(TimelineService timelineService, PostService postService, CurrentUser currentUser) {
+        this.timelineService = timelineService;
+        this.postService = postService;
+        this.currentUser = currentUser;
+    }
+
+    /**
+     * Posts from the people the current user follows, plus their own, newest
+     * first. Paged like the post listings: the next cursor is returned in the
+     * X-Next-Cursor header.
+     */
+    @GetMapping
+    public ResponseEntity<?> getFeed(@RequestParam(required = false) String cursor,
+                                     @RequestParam(required = false) Integer limit) {
+        String userId = currentUser.getId();
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
+        }
+
+        try {
+            int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+            CursorPage<String> page = timelineService.getTimeline(userId, cursor, pageSize);
+            List<PostListItem> posts = postService.getListItems(page.getItems(), userId);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasMore()) {
+                response.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(posts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
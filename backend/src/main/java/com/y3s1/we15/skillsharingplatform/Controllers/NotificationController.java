@@ -1,12 +1,10 @@
 package com.y3s1.we15.skillsharingplatform.Controllers;
 
 import com.y3s1.we15.skillsharingplatform.Models.Notification;
-import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Security.CurrentUser;
 import com.y3s1.we15.skillsharingplatform.Service.NotificationService;
-import com.y3s1.we15.skillsharingplatform.Service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -16,32 +14,30 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
-    private final UserService userService;
+    private final CurrentUser currentUser;
 
     @Autowired
-    public NotificationController(NotificationService notificationService, UserService userService) {
+    public NotificationController(NotificationService notificationService, CurrentUser currentUser) {
         this.notificationService = notificationService;
-        this.userService = userService;
+        this.currentUser = currentUser;
     }
 
     @GetMapping
-    public ResponseEntity<List<Notification>> getUserNotifications(Authentication authentication) {
-        String username = authentication.getName();
-        UserModel user = userService.findByUsername(username);
-        if (user == null) {
+    public ResponseEntity<List<Notification>> getUserNotifications() {
+        String userId = currentUser.getId();
+        if (userId == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(notificationService.getUserNotifications(user.getId()));
+        return ResponseEntity.ok(notificationService.getUserNotifications(userId));
     }
 
     @GetMapping("/unread")
-    public ResponseEntity<List<Notification>> getUnreadNotifications(Authentication authentication) {
-        String username = authentication.getName();
-        UserModel user = userService.findByUsername(username);
-        if (user == null) {
+    public ResponseEntity<List<Notification>> getUnreadNotifications() {
+        String userId = currentUser.getId();
+        if (userId == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(notificationService.getUnreadNotifications(user.getId()));
+        return ResponseEntity.ok(notificationService.getUnreadNotifications(userId));
     }
 
     @PutMapping("/{notificationId}/read")
@@ -51,13 +47,12 @@ public class NotificationController {
     }
 
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
-        String username = authentication.getName();
-        UserModel user = userService.findByUsername(username);
-        if (user == null) {
+    public ResponseEntity<Void> markAllAsRead() {
+        String userId = currentUser.getId();
+        if (userId == null) {
             return ResponseEntity.notFound().build();
         }
-        notificationService.markAllAsRead(user.getId());
+        notificationService.markAllAsRead(userId);
         return ResponseEntity.ok().build();
     }
 } 
\ No newline at end of file
@@ -123,7 +123,7 @@ public class OAuthController {
             }
             
             // Generate JWT token
-            String jwt = jwtUtils.generateJwtToken(user.getUsername());
+            String jwt = jwtUtils.generateJwtToken(user);
             
             // Get role list
             List<String> roles = user.getRole() != null ? 
@@ -264,7 +264,7 @@ public class OAuthController {
             // 4. Generate JWT token
             String jwt = null;
             try {
-                jwt = jwtUtils.generateJwtToken(user.getUsername());
+                jwt = jwtUtils.generateJwtToken(user);
             } catch (Exception e) {
                 System.err.println("Error generating JWT token: " + e.getMessage());
                 // Continue without the token - we'll create a simple token instead
@@ -1,17 +1,23 @@
 package com.y3s1.we15.skillsharingplatform.Controllers;
 
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
+import com.y3s1.we15.skillsharingplatform.Models.LikeToggleResult;
 import com.y3s1.we15.skillsharingplatform.Models.Post;
 import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
 import com.y3s1.we15.skillsharingplatform.Models.Notification;
+import com.y3s1.we15.skillsharingplatform.Security.CurrentUser;
+import com.y3s1.we15.skillsharingplatform.Security.UserPrincipal;
+import com.y3s1.we15.skillsharingplatform.Service.CollectionVersions;
+import com.y3s1.we15.skillsharingplatform.Service.EntityTags;
 import com.y3s1.we15.skillsharingplatform.Service.PostService;
 import com.y3s1.we15.skillsharingplatform.Service.UserService;
 import com.y3s1.we15.skillsharingplatform.Service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 
 import java.util.*;
@@ -21,22 +27,30 @@ import java.util.*;
 @CrossOrigin(origins = "http://localhost:3000", allowCredentials = "true")
 public class PostController {
 
+    // Continuation token for the next page of a listing; absent on the last page
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PostService postService;
     private final UserService userService;
+    private final CurrentUser currentUser;
     private final NotificationService notificationService;
+    private final CollectionVersions collectionVersions;
 
     @Autowired
-    public PostController(PostService postService, UserService userService, NotificationService notificationService) {
+    public PostController(PostService postService, UserService userService, NotificationService notificationService,
+                          CollectionVersions collectionVersions, CurrentUser currentUser) {
         this.postService = postService;
         this.userService = userService;
         this.notificationService = notificationService;
+        this.collectionVersions = collectionVersions;
+        this.currentUser = currentUser;
     }
 
     @PostMapping
     public ResponseEntity<Post> createPost(@RequestBody Post post) {
         Optional<UserModel> user = userService.getUserById(post.getUser().getId());
         if (user.isPresent()) {
-            post.setUser(user.get());
+            post.setUser(UserSummary.from(user.get()));
             Post createdPost = postService.createPost(post);
             return ResponseEntity.ok(createdPost);
         } else {
@@ -45,27 +59,41 @@ public class PostController {
     }
 
     @GetMapping
-    public List<Post> getAllPosts() {
-        return postService.getAllPosts();
+    public ResponseEntity<?> getAllPosts(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest request) {
+        try {
+            String viewerId = currentUser.getId();
+            String etag = collectionVersions.etag(CollectionVersions.POSTS, "all", cursor, limit, viewerId);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return pageResponse(postService.getPostsPage(viewerId, cursor, limit), etag);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Post> getPostById(@PathVariable String id) {
-        return postService.getPostById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Post> getPostById(@PathVariable String id, WebRequest request) {
+        Optional<Post> post = postService.getPostWithPendingLikes(id);
+        if (!post.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Likes change the post without touching updatedAt, so they are part of the tag;
+        // likeCount already includes the buffered delta, so an unflushed like changes it too
+        Post found = post.get();
+        String etag = EntityTags.weak(found.getId(), found.getUpdatedAt(), found.getLikeCount(), found.getLikedUserIds());
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(found);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Post> updatePost(@PathVariable String id, @RequestBody Post postDetails) {
         // Get current authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-        String username = authentication.getName();
-        UserModel currentUser = userService.findByUsername(username);
-        if (currentUser == null) {
+        if (!currentUser.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
@@ -82,26 +110,18 @@ public class PostController {
                     .body(null); // Return 403 Forbidden if not the owner
         }
 
-        // Update the post
-        post.setTitle(postDetails.getTitle());
-        post.setDescription(postDetails.getDescription());
-        post.setCategory(postDetails.getCategory());
-        post.setMediaUrls(postDetails.getMediaUrls());
-        
-        Post updatedPost = postService.updatePost(post);
+        // Update the post; the instance read above may be cached and shared, so it is left untouched
+        Post updatedPost = postService.updatePost(id, postDetails);
+        if (updatedPost == null) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.ok(updatedPost);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable String id) {
         // Get current authenticated user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-        String username = authentication.getName();
-        UserModel currentUser = userService.findByUsername(username);
-        if (currentUser == null) {
+        if (!currentUser.isAuthenticated()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
@@ -122,66 +142,95 @@ public class PostController {
     }
 
     @GetMapping("/category/{category}")
-    public List<Post> getPostsByCategory(@PathVariable String category) {
-        return postService.getPostsByCategory(category);
+    public ResponseEntity<?> getPostsByCategory(@PathVariable String category,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit,
+                                                WebRequest request) {
+        try {
+            String viewerId = currentUser.getId();
+            String etag = collectionVersions.etag(CollectionVersions.POSTS, "category", category, cursor, limit, viewerId);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return pageResponse(postService.getPostsByCategoryPage(category, viewerId, cursor, limit), etag);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/search")
-    public List<Post> searchPosts(@RequestParam String title) {
-        return postService.searchPosts(title);
+    public ResponseEntity<?> searchPosts(@RequestParam String title,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         WebRequest request) {
+        try {
+            String viewerId = currentUser.getId();
+            String etag = collectionVersions.etag(CollectionVersions.POSTS, "search", title, cursor, limit, viewerId);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return pageResponse(postService.searchPostsPage(title, viewerId, cursor, limit), etag);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/user/{userId}")
-    public List<Post> getPostsByUser(@PathVariable String userId) {
-        return postService.getPostsByUserId(userId);
+    public ResponseEntity<?> getPostsByUser(@PathVariable String userId,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            WebRequest request) {
+        try {
+            String viewerId = currentUser.getId();
+            String etag = collectionVersions.etag(CollectionVersions.POSTS, "user", userId, cursor, limit, viewerId);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            return pageResponse(postService.getPostsByUserIdPage(userId, viewerId, cursor, limit), etag);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping("/{postId}/like")
     public ResponseEntity<?> toggleLike(@PathVariable String postId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            return ResponseEntity.status(401).body("Login required");
-        }
-        
-        String username = authentication.getName();
-        UserModel user = userService.findByUsername(username);
+        UserPrincipal user = currentUser.get();
         if (user == null) {
-            return ResponseEntity.status(401).body("User not found");
+            return ResponseEntity.status(401).body("Login required");
         }
 
-        Optional<Post> optionalPost = postService.getPostById(postId);
-        if (!optionalPost.isPresent()) {
+        String userId = user.getId();
+        LikeToggleResult result = postService.toggleLike(postId, userId);
+        if (result == null) {
             return ResponseEntity.status(404).body("Post not found with id: " + postId);
         }
-        Post post = optionalPost.get();
 
-        String userId = user.getId();
-                
-        boolean wasLiked = post.getLikedUserIds().contains(userId);
-        if (wasLiked) {
-            post.getLikedUserIds().remove(userId);
-        } else {
-            post.getLikedUserIds().add(userId);
-            // Send notification to post owner when someone likes their post
-            if (!post.getUser().getId().equals(userId)) { // Don't send notification if user likes their own post
-                String content = String.format("%s %s liked your post: %s", 
-                    user.getFirstName(), user.getLastName(), post.getTitle());
-                notificationService.createNotification(
-                    post.getUser().getId(),
-                    userId,
-                    postId,
-                    Notification.NotificationType.LIKE,
-                    content
-                );
-            }
+        // Send notification to post owner when someone likes their post
+        if (result.isLiked() && result.getOwnerId() != null
+                && !result.getOwnerId().equals(userId)) { // Don't send notification if user likes their own post
+            String content = String.format("%s %s liked your post: %s", 
+                currentUser.getSummary().getFirstName(), currentUser.getSummary().getLastName(), result.getTitle());
+            notificationService.createNotification(
+                result.getOwnerId(),
+                userId,
+                postId,
+                Notification.NotificationType.LIKE,
+                content
+            );
         }
 
-        post.setLikeCount(post.getLikedUserIds().size());
-        Post updatedPost = postService.updatePost(post);
-
         Map<String, Object> res = new HashMap<>();
-        res.put("likeCount", updatedPost.getLikeCount());
-        res.put("likedByCurrentUser", updatedPost.getLikedUserIds().contains(userId));
+        res.put("likeCount", result.getLikeCount());
+        res.put("likedByCurrentUser", result.isLiked());
         return ResponseEntity.ok(res);
     }
+
+    // The body stays a plain JSON array; the continuation token travels in a header
+    private <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag);
+        if (page.hasMore()) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.y3s1.we15.skillsharingplatform.Controllers;
 
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Models.Progress;
 import com.y3s1.we15.skillsharingplatform.Models.ProgressComment;
+import com.y3s1.we15.skillsharingplatform.Models.ProgressCommentThread;
 import com.y3s1.we15.skillsharingplatform.Models.UserModel;
 import com.y3s1.we15.skillsharingplatform.Models.Notification;
+import com.y3s1.we15.skillsharingplatform.Security.CurrentUser;
+import com.y3s1.we15.skillsharingplatform.Security.UserPrincipal;
+import com.y3s1.we15.skillsharingplatform.Service.CollectionVersions;
+import com.y3s1.we15.skillsharingplatform.Service.EntityTags;
 import com.y3s1.we15.skillsharingplatform.Service.ProgressService;
 import com.y3s1.we15.skillsharingplatform.Service.ProgressCommentService;
 import com.y3s1.we15.skillsharingplatform.Service.UserService;
@@ -14,6 +20,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
 
@@ -26,21 +33,32 @@ public class ProgressController {
     private final UserService userService;
     private final ProgressCommentService progressCommentService;
     private final NotificationService notificationService;
+    private final CollectionVersions collectionVersions;
+    private final CurrentUser currentUser;
 
     @Autowired
     public ProgressController(ProgressService progressService, UserService userService, 
                               ProgressCommentService progressCommentService, 
-                              NotificationService notificationService) {
+                              NotificationService notificationService,
+                              CollectionVersions collectionVersions,
+                              CurrentUser currentUser) {
         this.progressService = progressService;
         this.userService = userService;
         this.progressCommentService = progressCommentService;
         this.notificationService = notificationService;
+        this.collectionVersions = collectionVersions;
+        this.currentUser = currentUser;
     }
 
     // GET all progress updates or filtered by user
     @GetMapping
-    public ResponseEntity<?> getAllProgress(@RequestParam(required = false) String userId) {
+    public ResponseEntity<?> getAllProgress(@RequestParam(required = false) String userId, WebRequest request) {
         try {
+            String etag = collectionVersions.etag(CollectionVersions.PROGRESS, userId);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+
             List<Progress> progressList;
             
             if (userId != null && !userId.isEmpty()) {
@@ -49,7 +67,7 @@ public class ProgressController {
                 progressList = progressService.getAllProgress();
             }
             
-            return ResponseEntity.ok(progressList);
+            return ResponseEntity.ok().eTag(etag).body(progressList);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error fetching progress updates: " + e.getMessage());
@@ -58,11 +76,17 @@ public class ProgressController {
 
     // GET a specific progress update by ID
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProgressById(@PathVariable String id) {
+    public ResponseEntity<?> getProgressById(@PathVariable String id, WebRequest request) {
         try {
+            // Answer revalidations from a small projection before loading the full document
+            Optional<Progress> version = progressService.getProgressVersion(id);
+            if (version.isPresent() && request.checkNotModified(progressETag(version.get()))) {
+                return null;
+            }
+
             Optional<Progress> progress = progressService.getProgressById(id);
             if (progress.isPresent()) {
-                return ResponseEntity.ok(progress.get());
+                return ResponseEntity.ok().eTag(progressETag(progress.get())).body(progress.get());
             } else {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Progress update not found with ID: " + id);
@@ -109,8 +133,8 @@ public class ProgressController {
     public ResponseEntity<?> updateProgress(@PathVariable String id, @RequestBody Progress progress) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
+            UserPrincipal user = currentUser.get();
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
@@ -122,9 +146,6 @@ public class ProgressController {
             }
             
             // Check if the authenticated user owns this progress update
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
-            
             Progress currentProgress = existingProgress.get();
             if (!currentProgress.getUser().getId().equals(user.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -145,8 +166,8 @@ public class ProgressController {
     public ResponseEntity<?> deleteProgress(@PathVariable String id) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
+            UserPrincipal user = currentUser.get();
+            if (user == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
@@ -158,9 +179,6 @@ public class ProgressController {
             }
             
             // Check if the authenticated user owns this progress update
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
-            
             Progress currentProgress = existingProgress.get();
             if (!currentProgress.getUser().getId().equals(user.getId())) {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN)
@@ -216,15 +234,9 @@ public class ProgressController {
     public ResponseEntity<?> likeProgress(@PathVariable String progressId) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
-            }
-            
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
+            UserPrincipal user = currentUser.get();
             if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
             // Add like
@@ -262,15 +274,9 @@ public class ProgressController {
     public ResponseEntity<?> unlikeProgress(@PathVariable String progressId) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
-            }
-            
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
+            UserPrincipal user = currentUser.get();
             if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
             // Remove like
@@ -292,8 +298,12 @@ public class ProgressController {
     }
     
     // Get comments for a progress update - accessible to all users (no authentication required)
+    // Top-level comments are paged; each includes its first replies and a replyCount
     @GetMapping("/{progressId}/comments")
-    public ResponseEntity<?> getProgressComments(@PathVariable String progressId) {
+    public ResponseEntity<?> getProgressComments(@PathVariable String progressId,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) Integer replies) {
         try {
             // Check if progress exists first
             Optional<Progress> existingProgress = progressService.getProgressById(progressId);
@@ -302,8 +312,14 @@ public class ProgressController {
                         .body("Progress update not found with ID: " + progressId);
             }
             
-            List<ProgressComment> comments = progressCommentService.getCommentsByProgressId(progressId);
-            return ResponseEntity.ok(comments);
+            CursorPage<ProgressCommentThread> page = progressCommentService.getThreadsPage(progressId, cursor, limit, replies);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasMore()) {
+                response.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error fetching comments: " + e.getMessage());
@@ -315,15 +331,9 @@ public class ProgressController {
     public ResponseEntity<?> addProgressComment(@PathVariable String progressId, @RequestBody Map<String, String> commentData) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
-            }
-            
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
+            UserPrincipal user = currentUser.get();
             if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
             // Check if progress exists
@@ -344,7 +354,7 @@ public class ProgressController {
             ProgressComment comment = new ProgressComment(
                 progressId,
                 user.getId(),
-                user.getFirstName() + " " + user.getLastName(),
+                currentUser.getSummary().getFirstName() + " " + currentUser.getSummary().getLastName(),
                 content
             );
             
@@ -353,7 +363,7 @@ public class ProgressController {
             // Send notification to progress owner if the commenter is not the owner
             if (!progress.getUser().getId().equals(user.getId())) {
                 String notificationContent = String.format("%s commented on your progress update: %s", 
-                    user.getFirstName() + " " + user.getLastName(), 
+                    currentUser.getSummary().getFirstName() + " " + currentUser.getSummary().getLastName(), 
                     content.length() > 50 ? content.substring(0, 47) + "..." : content);
                 
                 notificationService.createNotification(
@@ -377,15 +387,9 @@ public class ProgressController {
     public ResponseEntity<?> addReplyToComment(@PathVariable String commentId, @RequestBody Map<String, String> commentData) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
-            }
-            
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
+            UserPrincipal user = currentUser.get();
             if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
             // Check if parent comment exists
@@ -416,7 +420,7 @@ public class ProgressController {
             ProgressComment reply = new ProgressComment(
                 progressId,
                 user.getId(),
-                user.getFirstName() + " " + user.getLastName(),
+                currentUser.getSummary().getFirstName() + " " + currentUser.getSummary().getLastName(),
                 content,
                 commentId  // Set the parent comment ID
             );
@@ -430,7 +434,7 @@ public class ProgressController {
             // Send notification to the parent comment owner if the replier is not the comment owner
             if (!parentComment.getUserId().equals(user.getId())) {
                 String notificationContent = String.format("%s replied to your comment: %s", 
-                    user.getFirstName() + " " + user.getLastName(), 
+                    currentUser.getSummary().getFirstName() + " " + currentUser.getSummary().getLastName(), 
                     content.length() > 50 ? content.substring(0, 47) + "..." : content);
                 
                 notificationService.createNotification(
@@ -447,7 +451,7 @@ public class ProgressController {
                 !progress.getUser().getId().equals(parentComment.getUserId())) {
                 
                 String notificationContent = String.format("%s replied to a comment on your progress update", 
-                    user.getFirstName() + " " + user.getLastName());
+                    currentUser.getSummary().getFirstName() + " " + currentUser.getSummary().getLastName());
                 
                 notificationService.createNotification(
                     progress.getUser().getId(),  // recipient (progress owner)
@@ -465,6 +469,22 @@ public class ProgressController {
         }
     }
     
+    // Get a comment and its whole reply subtree, oldest first, in one query
+    @GetMapping("/comments/{commentId}/thread")
+    public ResponseEntity<?> getCommentThread(@PathVariable String commentId) {
+        try {
+            List<ProgressComment> thread = progressCommentService.getThread(commentId);
+            if (thread.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body("Comment not found with ID: " + commentId);
+            }
+            return ResponseEntity.ok(thread);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error fetching thread: " + e.getMessage());
+        }
+    }
+
     // Get replies to a specific comment
     @GetMapping("/comments/{commentId}/replies")
     public ResponseEntity<?> getCommentReplies(@PathVariable String commentId) {
@@ -489,15 +509,9 @@ public class ProgressController {
     public ResponseEntity<?> updateProgressComment(@PathVariable String commentId, @RequestBody Map<String, String> commentData) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
-            }
-            
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
+            UserPrincipal user = currentUser.get();
             if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
             // Check if comment exists
@@ -535,15 +549,9 @@ public class ProgressController {
     public ResponseEntity<?> deleteProgressComment(@PathVariable String commentId) {
         try {
             // Get authenticated user
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
-            }
-            
-            String username = authentication.getName();
-            UserModel user = userService.findByUsername(username);
+            UserPrincipal user = currentUser.get();
             if (user == null) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("User not found");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Login required");
             }
             
             // Check if comment exists
@@ -569,4 +577,14 @@ public class ProgressController {
                     .body("Error deleting comment: " + e.getMessage());
         }
     }
+
+    // Likes and comments change a progress update without touching updatedAt, and the
+    // embedded author changes on profile edits and follows, so all of them are in the tag
+    private static String progressETag(Progress progress) {
+        UserModel author = progress.getUser();
+        return EntityTags.weak(progress.getId(), progress.getUpdatedAt(), progress.getCommentCount(), progress.getLikes(),
+                author != null ? author.getUpdatedAt() : null,
+                author != null ? author.getFollowerCount() : null,
+                author != null ? author.getFollowingCount() : null);
+    }
 } 
\ No newline at end of file
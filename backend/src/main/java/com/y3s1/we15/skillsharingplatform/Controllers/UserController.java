@@ -1,12 +1,20 @@
 package com.y3s1.we15.skillsharingplatform.Controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import com.y3s1.we15.skillsharingplatform.Service.AuthorSnapshotService;
+import com.y3s1.we15.skillsharingplatform.Service.EntityTags;
 import com.y3s1.we15.skillsharingplatform.Service.UserService;
+import com.y3s1.we15.skillsharingplatform.Service.UserSummaryService;
 import com.y3s1.we15.skillsharingplatform.Security.JwtUtils;
+import com.y3s1.we15.skillsharingplatform.Security.TokenVersions;
 import com.y3s1.we15.skillsharingplatform.Security.payload.JwtResponse;
 import com.y3s1.we15.skillsharingplatform.Security.payload.LoginRequest;
 import com.y3s1.we15.skillsharingplatform.Security.payload.MessageResponse;
@@ -21,6 +29,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.*;
 
@@ -36,10 +45,22 @@ public class UserController {
     
     @Autowired
     private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenVersions tokenVersions;
     
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthorSnapshotService authorSnapshotService;
+
+    @Autowired
+    private UserSummaryService userSummaryService;
+
+    @Value("${users.batch.max-ids:100}")
+    private int maxBatchIds;
+
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
         if (userService.existsByUsername(signUpRequest.getUsername())) {
@@ -118,10 +139,10 @@ public class UserController {
             }
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
             
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             UserModel user = userService.findByUsername(userDetails.getUsername());
+            String jwt = jwtUtils.generateJwtToken(user);
             
             List<String> roles = user.getRole() != null ? 
                     new ArrayList<>(user.getRole()) : 
@@ -168,12 +189,34 @@ public class UserController {
         return userService.getAllUsers();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> getUserSummaries(@RequestBody Map<String, List<String>> request) {
+        List<String> ids = request.get("ids");
+        if (ids == null) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "ids is required");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        if (ids.size() > maxBatchIds) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "At most " + maxBatchIds + " ids can be requested at once");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(userSummaryService.getSummaries(ids));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable String id) {
+    public ResponseEntity<?> getUserById(@PathVariable String id, WebRequest request) {
         try {
+            // Answer revalidations from the tag fields alone before loading the profile
+            Optional<UserModel> version = userService.getUserVersion(id);
+            if (version.isPresent() && request.checkNotModified(profileTag(version.get()))) {
+                return null;
+            }
+
             Optional<UserModel> user = userService.getUserById(id);
             if (user.isPresent()) {
-                return new ResponseEntity<>(user.get(), HttpStatus.OK);
+                return ResponseEntity.ok().eTag(profileTag(user.get())).body(user.get());
             } else {
                 Map<String, String> errorResponse = new HashMap<>();
                 errorResponse.put("error", "User not found with id: " + id);
@@ -209,6 +252,12 @@ public class UserController {
                 if (userDetails.getLocation() != null) user.setLocation(userDetails.getLocation());
                 if (userDetails.getSocialLinks() != null) user.setSocialLinks(userDetails.getSocialLinks());
                 UserModel updatedUser = userService.updateUser(user);
+                // New credentials or roles sign out every session issued under the old ones
+                if (userDetails.getPassword() != null || userDetails.getRole() != null) {
+                    tokenVersions.revoke(id);
+                }
+                // Refresh the author snapshot on this user's posts in the background
+                authorSnapshotService.propagateProfile(updatedUser.getId());
                 return new ResponseEntity<>(updatedUser, HttpStatus.OK);
             } else {
                 Map<String, String> errorResponse = new HashMap<>();
@@ -316,10 +365,10 @@ public class UserController {
             }
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
             
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             UserModel user = userService.findByUsername(userDetails.getUsername());
+            String jwt = jwtUtils.generateJwtToken(user);
             
             // Set user in session for backward compatibility
             session.setAttribute("user", user);
@@ -364,13 +413,12 @@ public class UserController {
     }
     
     @GetMapping("/{userId}/followers")
-    public ResponseEntity<?> getFollowers(@PathVariable String userId) {
+    public ResponseEntity<?> getFollowers(@PathVariable String userId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
         try {
-            List<UserModel> followers = userService.getFollowers(userId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("followers", followers);
-            response.put("count", followers.size());
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            CursorPage<UserSummary> page = userService.getFollowers(userId, cursor, limit);
+            return followPageResponse("followers", page);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -379,13 +427,12 @@ public class UserController {
     }
     
     @GetMapping("/{userId}/following")
-    public ResponseEntity<?> getFollowing(@PathVariable String userId) {
+    public ResponseEntity<?> getFollowing(@PathVariable String userId,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
         try {
-            List<UserModel> following = userService.getFollowing(userId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("following", following);
-            response.put("count", following.size());
-            return new ResponseEntity<>(response, HttpStatus.OK);
+            CursorPage<UserSummary> page = userService.getFollowing(userId, cursor, limit);
+            return followPageResponse("following", page);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
@@ -393,18 +440,51 @@ public class UserController {
         }
     }
     
+    // Which of the given ids the user follows, so a screen can mark the users it shows
+    @PostMapping("/{userId}/following/check")
+    public ResponseEntity<?> checkFollowing(@PathVariable String userId, @RequestBody Map<String, List<String>> request) {
+        List<String> ids = request.get("ids");
+        if (ids == null) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "ids is required");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        if (ids.size() > maxBatchIds) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "At most " + maxBatchIds + " ids can be checked at once");
+            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("following", userService.filterFollowing(userId, ids));
+        return ResponseEntity.ok(response);
+    }
+    
+    // count is the whole list; nextCursor is repeated in the body for clients that only see the payload
+    private ResponseEntity<?> followPageResponse(String key, CursorPage<UserSummary> page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put(key, page.getItems());
+        response.put("count", page.getTotal());
+        response.put("nextCursor", page.getNextCursor());
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.hasMore()) {
+            builder.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(response);
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<?> searchUsers(
             @RequestParam(defaultValue = "") String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         try {
-            List<UserModel> users = userService.searchUsers(query, page, size);
+            Page<UserSummary> users = userService.searchUsers(query, page, size);
             Map<String, Object> response = new HashMap<>();
-            response.put("users", users);
+            response.put("users", users.getContent());
             response.put("currentPage", page);
             response.put("pageSize", size);
-            response.put("totalItems", users.size());
+            response.put("totalItems", users.getTotalElements());
+            response.put("totalPages", users.getTotalPages());
             return new ResponseEntity<>(response, HttpStatus.OK);
         } catch (Exception e) {
             Map<String, String> errorResponse = new HashMap<>();
@@ -492,11 +572,21 @@ public class UserController {
             user.setPassword(passwordEncoder.encode(newPassword));
             userService.updateUser(user);
             
-            return ResponseEntity.ok(new MessageResponse("Password changed successfully"));
+            // Sign out every other session; this one carries on with the returned token
+            tokenVersions.revoke(userId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Password changed successfully");
+            response.put("token", jwtUtils.generateJwtToken(user));
+            return ResponseEntity.ok(response);
             
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(
                 new MessageResponse("Error changing password: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Follow counts move by $inc without touching updatedAt, so they are part of the tag
+    private static String profileTag(UserModel user) {
+        return EntityTags.weak(user.getId(), user.getUpdatedAt(), user.getFollowerCount(), user.getFollowingCount());
+    }
+}
@@ -11,8 +11,10 @@ public class ChatBox {
     @Id
     private String id;
 
-    private UserModel sender;
-    private UserModel recipient;
+    private String senderId;
+    private String recipientId;
+    // Same for both directions of a pair; indexed with createdAt to read a thread in order
+    private String conversationId;
     private String content;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -21,7 +23,22 @@ public class ChatBox {
         this.createdAt = LocalDateTime.now();
     }
 
+    public ChatBox(String senderId, String recipientId, String content) {
+        this();
+        this.senderId = senderId;
+        this.recipientId = recipientId;
+        this.conversationId = conversationId(senderId, recipientId);
+        this.content = content;
+    }
+
+    /**
+     * Canonical id of the conversation between two users, whichever of them is sending.
+     */
+    public static String conversationId(String userId1, String userId2) {
+        return userId1.compareTo(userId2) <= 0 ? userId1 + ":" + userId2 : userId2 + ":" + userId1;
+    }
+
     public void updateTimestamp() {
         this.updatedAt = LocalDateTime.now();
     }
-} 
\ No newline at end of file
+}
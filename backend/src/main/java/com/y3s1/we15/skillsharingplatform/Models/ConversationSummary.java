@@ -0,0 +1,110 @@
+package com.y3s1.we15.skillsharingplatform.Models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest state of a two-person chat, one document per pair keyed by the
+ * conversation id of {@link ChatBox}. Kept up to date with single-document
+ * updates whenever a message is sent, edited or deleted, so a user's recent
+ * chats are one indexed read instead of a scan of their messages.
+ */
+@Document(collection = "conversations")
+public class ConversationSummary {
+
+    @Id
+    private String id;
+    private List<String> participantIds;
+    private String lastMessageId;
+    private String lastMessage;
+    private String lastSenderId;
+    private LocalDateTime lastMessageAt;
+    // userId -> messages received since that user last opened the conversation
+    private Map<String, Long> unread;
+    private Map<String, LocalDateTime> lastReadAt;
+
+    public ConversationSummary() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<String> getParticipantIds() {
+        return participantIds;
+    }
+
+    public void setParticipantIds(List<String> participantIds) {
+        this.participantIds = participantIds;
+    }
+
+    public String getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(String lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    public void setLastMessage(String lastMessage) {
+        this.lastMessage = lastMessage;
+    }
+
+    public String getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public void setLastSenderId(String lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    public LocalDateTime getLastMessageAt() {
+        return lastMessageAt;
+    }
+
+    public void setLastMessageAt(LocalDateTime lastMessageAt) {
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    public Map<String, Long> getUnread() {
+        return unread;
+    }
+
+    public void setUnread(Map<String, Long> unread) {
+        this.unread = unread;
+    }
+
+    public Map<String, LocalDateTime> getLastReadAt() {
+        return lastReadAt;
+    }
+
+    public void setLastReadAt(Map<String, LocalDateTime> lastReadAt) {
+        this.lastReadAt = lastReadAt;
+    }
+
+    public long unreadFor(String userId) {
+        Long count = unread != null ? unread.get(userId) : null;
+        return count != null ? count : 0;
+    }
+
+    public String partnerOf(String userId) {
+        for (String participantId : participantIds) {
+            if (!participantId.equals(userId)) {
+                return participantId;
+            }
+        }
+        return userId;
+    }
+}
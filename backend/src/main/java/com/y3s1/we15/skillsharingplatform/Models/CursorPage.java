@@ -0,0 +1,41 @@
+package com.y3s1.we15.skillsharingplatform.Models;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque
+ * continuation token, or {@code null} when there are no more items.
+ * {@code total} is the size of the whole listing when it was cheap to get
+ * alongside the page, otherwise {@code null}.
+ */
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final Long total;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+    public CursorPage(List<T> items, String nextCursor, Long total) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
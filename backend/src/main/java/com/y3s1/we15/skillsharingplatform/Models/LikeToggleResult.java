@@ -0,0 +1,35 @@
+package com.y3s1.we15.skillsharingplatform.Models;
+
+/**
+ * Outcome of toggling a like: the viewer's new like state, the post's like
+ * count after the toggle, and the bits of the post needed to notify its owner.
+ */
+public class LikeToggleResult {
+    private final boolean liked;
+    private final int likeCount;
+    private final String ownerId;
+    private final String title;
+
+    public LikeToggleResult(boolean liked, int likeCount, String ownerId, String title) {
+        this.liked = liked;
+        this.likeCount = likeCount;
+        this.ownerId = ownerId;
+        this.title = title;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+}
@@ -2,7 +2,7 @@ package com.y3s1.we15.skillsharingplatform.Models;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -17,8 +17,9 @@ public class Post {
     private String category;
     private List<String> mediaUrls;
 
-    @DBRef
-    private UserModel user;
+    // Author snapshot written at create time; kept fresh by AuthorSnapshotService
+    @Field("author")
+    private UserSummary user;
 
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -27,6 +28,9 @@ public class Post {
     private List<String> likedUserIds = new ArrayList<>();
 private int likeCount;
 
+    // Maintained with $inc by CommentCountService
+    private int commentCount;
+
 
     // Constructors
     public Post() {
@@ -40,7 +44,7 @@ private int likeCount;
         this.description = description;
         this.category = category;
         this.mediaUrls = mediaUrls;
-        this.user = user;
+        this.user = UserSummary.from(user);
     }
 
     // Getters and Setters
@@ -84,11 +88,11 @@ private int likeCount;
         this.mediaUrls = mediaUrls;
     }
 
-    public UserModel getUser() {
+    public UserSummary getUser() {
         return user;
     }
 
-    public void setUser(UserModel user) {
+    public void setUser(UserSummary user) {
         this.user = user;
     }
 
@@ -124,4 +128,12 @@ private int likeCount;
     public void setLikeCount(int likeCount) {
         this.likeCount = likeCount;
     }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
 }
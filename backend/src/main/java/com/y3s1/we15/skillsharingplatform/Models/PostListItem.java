@@ -0,0 +1,80 @@
+package com.y3s1.we15.skillsharingplatform.Models;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A post as shown in feeds and listings. Carries the like and comment counts
+ * and whether the viewer liked it instead of the full likedUserIds array.
+ */
+public class PostListItem {
+    private final String id;
+    private final String title;
+    private final String description;
+    private final String category;
+    private final List<String> mediaUrls;
+    private final UserSummary user;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final int likeCount;
+    private final int commentCount;
+    private final boolean likedByCurrentUser;
+
+    public PostListItem(Post post, int likeCount, boolean likedByCurrentUser) {
+        this.id = post.getId();
+        this.title = post.getTitle();
+        this.description = post.getDescription();
+        this.category = post.getCategory();
+        this.mediaUrls = post.getMediaUrls();
+        this.user = post.getUser();
+        this.createdAt = post.getCreatedAt();
+        this.updatedAt = post.getUpdatedAt();
+        this.likeCount = likeCount;
+        this.commentCount = post.getCommentCount();
+        this.likedByCurrentUser = likedByCurrentUser;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public List<String> getMediaUrls() {
+        return mediaUrls;
+    }
+
+    public UserSummary getUser() {
+        return user;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public boolean isLikedByCurrentUser() {
+        return likedByCurrentUser;
+    }
+}
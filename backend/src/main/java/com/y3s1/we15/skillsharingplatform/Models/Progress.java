@@ -23,6 +23,7 @@ public class Progress {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<String> likes; // List of user IDs who liked this progress
+    private int likeCount; // Written behind by LikeCounterService, eventually equals likes.size()
     private int commentCount; // Number of comments on this progress
 
     public Progress() {
@@ -112,6 +113,14 @@ public class Progress {
         this.likes = likes;
     }
     
+    public int getLikeCount() {
+        return likeCount;
+    }
+    
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+    
     public int getCommentCount() {
         return commentCount;
     }
@@ -3,6 +3,8 @@ package com.y3s1.we15.skillsharingplatform.Models;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Document(collection = "progress_comments")
 public class ProgressComment {
@@ -15,6 +17,10 @@ public class ProgressComment {
     private String userName;
     private String content;
     private String parentCommentId;
+    // Materialized path: the top-level comment of the thread and every ancestor from it down to the parent
+    private String rootId;
+    private List<String> ancestorIds = new ArrayList<>();
+    private int depth;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -65,6 +71,18 @@ public class ProgressComment {
         return parentCommentId;
     }
 
+    public String getRootId() {
+        return rootId;
+    }
+
+    public List<String> getAncestorIds() {
+        return ancestorIds;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -98,6 +116,18 @@ public class ProgressComment {
         this.parentCommentId = parentCommentId;
     }
 
+    public void setRootId(String rootId) {
+        this.rootId = rootId;
+    }
+
+    public void setAncestorIds(List<String> ancestorIds) {
+        this.ancestorIds = ancestorIds;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
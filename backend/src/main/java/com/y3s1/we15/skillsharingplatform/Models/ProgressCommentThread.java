@@ -0,0 +1,35 @@
+package com.y3s1.we15.skillsharingplatform.Models;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/**
+ * A top-level progress comment with the first replies of its thread and the
+ * total number of replies. Serializes as the comment's own fields plus
+ * replies and replyCount, so clients reading plain comments keep working.
+ */
+public class ProgressCommentThread {
+    @JsonUnwrapped
+    private final ProgressComment comment;
+    private final List<ProgressComment> replies;
+    private final long replyCount;
+
+    public ProgressCommentThread(ProgressComment comment, List<ProgressComment> replies, long replyCount) {
+        this.comment = comment;
+        this.replies = replies;
+        this.replyCount = replyCount;
+    }
+
+    public ProgressComment getComment() {
+        return comment;
+    }
+
+    public List<ProgressComment> getReplies() {
+        return replies;
+    }
+
+    public long getReplyCount() {
+        return replyCount;
+    }
+}
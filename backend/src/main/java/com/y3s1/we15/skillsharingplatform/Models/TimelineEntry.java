@@ -0,0 +1,71 @@
+package com.y3s1.we15.skillsharingplatform.Models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One post in one user's home timeline. Written when the post is created,
+ * once per follower, so reading the feed is a single indexed range scan on
+ * (ownerId, createdAt).
+ */
+@Document(collection = "timelines")
+public class TimelineEntry {
+    @Id
+    private String id;
+    private String ownerId;
+    private String postId;
+    private String authorId;
+    private LocalDateTime createdAt; // The post's creation time, not when the entry was written
+
+    public TimelineEntry() {
+    }
+
+    public TimelineEntry(String ownerId, String postId, String authorId, LocalDateTime createdAt) {
+        this.ownerId = ownerId;
+        this.postId = postId;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -3,8 +3,10 @@ package com.y3s1.we15.skillsharingplatform.Models;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "users")
@@ -23,8 +25,19 @@ public class UserModel {
     private String location;
     private String socialLinks;
     private Map<String, String> oauthIds;
-    private List<String> followers = new ArrayList<>();
-    private List<String> following = new ArrayList<>();
+    // Legacy embedded follow lists, moved into the follows collection at startup; null once migrated
+    private List<String> followers;
+    private List<String> following;
+    // Maintained with $inc alongside FollowEdge writes; read-only so a stale full-document save cannot undo a follow
+    @ReadOnlyProperty
+    private long followerCount;
+    @ReadOnlyProperty
+    private long followingCount;
+    private LocalDateTime updatedAt; // Set on every save by UserTimestampCallback
+    // Only ever changed with $inc by TokenVersions, so a stale full-document save cannot roll it back
+    @ReadOnlyProperty
+    @JsonIgnore
+    private long tokenVersion;
 
     public UserModel() {}
 
@@ -35,8 +48,6 @@ public class UserModel {
         this.firstName = firstName;
         this.lastName = lastName;
         this.skills = skills;
-        this.followers = new ArrayList<>();
-        this.following = new ArrayList<>();
     }
 
     public String getId() {
@@ -143,6 +154,7 @@ public class UserModel {
         this.oauthIds = oauthIds;
     }
 
+    @JsonIgnore
     public List<String> getFollowers() {
         return followers;
     }
@@ -151,6 +163,7 @@ public class UserModel {
         this.followers = followers;
     }
 
+    @JsonIgnore
     public List<String> getFollowing() {
         return following;
     }
@@ -159,24 +172,36 @@ public class UserModel {
         this.following = following;
     }
 
-    public void addFollower(String userId) {
-        if (!this.followers.contains(userId)) {
-            this.followers.add(userId);
-        }
+    public long getFollowerCount() {
+        return followerCount;
     }
 
-    public void removeFollower(String userId) {
-        this.followers.remove(userId);
+    public void setFollowerCount(long followerCount) {
+        this.followerCount = followerCount;
     }
 
-    public void addFollowing(String userId) {
-        if (!this.following.contains(userId)) {
-            this.following.add(userId);
-        }
+    public long getFollowingCount() {
+        return followingCount;
     }
 
-    public void removeFollowing(String userId) {
-        this.following.remove(userId);
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(long tokenVersion) {
+        this.tokenVersion = tokenVersion;
     }
 
     @Override
@@ -184,6 +209,6 @@ public class UserModel {
         return "UserModel [contactNumber=" + contactNumber + ", email=" + email + ", id=" + id + ", location=" + location
                 + ", firstName=" + firstName + ", lastName=" + lastName + ", password=" + password + ", profilePicture=" + profilePicture + ", role=" + role
                 + ", skills=" + skills + ", socialLinks=" + socialLinks + ", username=" + username + ", oauthIds=" + oauthIds 
-                + ", followers=" + followers + ", following=" + following + "]";
+                + ", followerCount=" + followerCount + ", followingCount=" + followingCount + "]";
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.y3s1.we15.skillsharingplatform.Models;
+
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Public, display-only view of a user: no credentials, contact details or
+ * follower lists. Embedded in documents that need to show their author.
+ */
+public class UserSummary {
+    // Explicit field name keeps this a plain string rather than a nested _id
+    @Field("id")
+    private String id;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String profilePicture;
+
+    public UserSummary() {}
+
+    public UserSummary(String id, String username, String firstName, String lastName, String profilePicture) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profilePicture = profilePicture;
+    }
+
+    public static UserSummary from(UserModel user) {
+        return new UserSummary(user.getId(), user.getUsername(), user.getFirstName(),
+                user.getLastName(), user.getProfilePicture());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getProfilePicture() {
+        return profilePicture;
+    }
+
+    public void setProfilePicture(String profilePicture) {
+        this.profilePicture = profilePicture;
+    }
+}
@@ -1,7 +1,6 @@
 package com.y3s1.we15.skillsharingplatform.Repositories;
 
 import com.y3s1.we15.skillsharingplatform.Models.ChatBox;
-import com.y3s1.we15.skillsharingplatform.Models.UserModel;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -9,6 +8,7 @@ import java.util.List;
 
 @Repository
 public interface ChatBoxRepository extends MongoRepository<ChatBox, String> {
-    List<ChatBox> findBySenderAndRecipientOrRecipientAndSenderOrderByCreatedAtAsc(
-        UserModel sender, UserModel recipient, UserModel recipient2, UserModel sender2);
-} 
\ No newline at end of file
+    List<ChatBox> findByConversationIdOrderByCreatedAtAsc(String conversationId);
+
+    List<ChatBox> findBySenderIdOrRecipientIdOrderByCreatedAtAsc(String senderId, String recipientId);
+}
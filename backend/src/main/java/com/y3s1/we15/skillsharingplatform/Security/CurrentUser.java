@@ -0,0 +1,95 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import com.y3s1.we15.skillsharingplatform.Service.UserSummaryService;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.List;
+
+/**
+ * The signed-in user of the current request, resolved once from the security
+ * context. Controllers inject this instead of looking the user up by name;
+ * use the user service only when the full document is actually needed.
+ */
+@Component
+@RequestScope
+public class CurrentUser {
+
+    private final PrincipalCache principalCache;
+    private final UserSummaryService userSummaryService;
+
+    private UserPrincipal principal;
+    private boolean resolved;
+    private UserSummary summary;
+
+    public CurrentUser(PrincipalCache principalCache, UserSummaryService userSummaryService) {
+        this.principalCache = principalCache;
+        this.userSummaryService = userSummaryService;
+    }
+
+    /**
+     * The caller's principal, or null for anonymous requests and unknown users.
+     */
+    public UserPrincipal get() {
+        if (!resolved) {
+            principal = resolve();
+            resolved = true;
+        }
+        return principal;
+    }
+
+    public boolean isAuthenticated() {
+        return get() != null;
+    }
+
+    public String getId() {
+        UserPrincipal user = get();
+        return user != null ? user.getId() : null;
+    }
+
+    public String getUsername() {
+        UserPrincipal user = get();
+        return user != null ? user.getUsername() : null;
+    }
+
+    /**
+     * Display summary of the caller. Principals built from token claims carry
+     * none, so it is fetched through the summary cache on first use.
+     */
+    public UserSummary getSummary() {
+        UserPrincipal user = get();
+        if (user == null) {
+            return null;
+        }
+        if (user.getSummary() != null) {
+            return user.getSummary();
+        }
+        if (summary == null) {
+            List<UserSummary> found = userSummaryService.getSummaries(List.of(user.getId()));
+            summary = found.isEmpty() ? new UserSummary(user.getId(), user.getUsername(), null, null, null) : found.get(0);
+        }
+        return summary;
+    }
+
+    public boolean hasRole(String role) {
+        UserPrincipal user = get();
+        return user != null && user.hasRole(role);
+    }
+
+    // Token requests already carry a UserPrincipal; other logins are looked up by name
+    private UserPrincipal resolve() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof UserPrincipal user) {
+            return user;
+        }
+        return principalCache.get(authentication.getName());
+    }
+}
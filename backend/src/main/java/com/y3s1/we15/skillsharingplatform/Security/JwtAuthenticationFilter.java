@@ -1,5 +1,6 @@
 package com.y3s1.we15.skillsharingplatform.Security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,14 +9,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,7 +26,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
 
     @Override
     protected void doFilterInternal(
@@ -34,15 +39,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            Claims claims = jwt != null ? jwtUtils.parseClaims(jwt) : null;
+            if (claims != null) {
+                UserPrincipal principal = principalFromClaims(claims);
+                if (principal != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal, null, principal.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication", e);
@@ -52,6 +58,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Claims are trusted once the signature checks out; only the token version is looked up,
+    // and that comes from memory. Tokens issued before claims were added go through the principal cache.
+    private UserPrincipal principalFromClaims(Claims claims) {
+        String userId = claims.get(JwtUtils.USER_ID_CLAIM, String.class);
+        if (userId == null) {
+            return principalCache.get(claims.getSubject());
+        }
+
+        Object version = claims.get(JwtUtils.VERSION_CLAIM);
+        if (!(version instanceof Number) || !tokenVersions.isCurrent(userId, ((Number) version).longValue())) {
+            return null;
+        }
+
+        List<String> roles = new ArrayList<>();
+        Object claimed = claims.get(JwtUtils.ROLES_CLAIM);
+        if (claimed instanceof Collection) {
+            for (Object role : (Collection<?>) claimed) {
+                roles.add(String.valueOf(role));
+            }
+        }
+        return new UserPrincipal(userId, claims.getSubject(), UserPrincipal.authorities(roles), null);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
@@ -1,19 +1,39 @@
 package com.y3s1.we15.skillsharingplatform.Security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import javax.crypto.SecretKey;
 
 @Component
 public class JwtUtils {
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String VERSION_CLAIM = "ver";
+
+    @Autowired
+    private TokenVersions tokenVersions;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -23,57 +43,112 @@ public class JwtUtils {
     
     private SecretKey cachedSigningKey;
 
-    public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
-        return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+    private volatile JwtParser parser;
+
+    // Token digest -> claims for tokens whose signature already checked out, each kept until it expires
+    private final Cache<String, Claims> verified;
+
+    public JwtUtils(@Value("${jwt.verified-cache.max-entries:10000}") long maxVerifiedTokens) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxVerifiedTokens)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return expireAfterCreate(digest, claims, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    public String generateJwtToken(String username) {
+    /**
+     * Signed token for this user carrying id, roles and current token version,
+     * enough for {@link JwtAuthenticationFilter} to authenticate requests
+     * without reading the user.
+     */
+    public String generateJwtToken(UserModel user) {
+        List<String> roles = UserPrincipal.authorities(user.getRole()).stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, roles)
+                .claim(VERSION_CLAIM, tokenVersions.current(user.getId()))
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
+    /**
+     * Verified claims of the token, or null if it is malformed, badly signed
+     * or expired. A token seen recently is answered from the verified-token
+     * cache without repeating the signature check; tampering with any part of
+     * it changes the digest and misses the cache.
+     */
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = digest(token);
+        Claims cached = verified.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
 
-    public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser().parseClaimsJws(token).getBody();
+            if (claims.getExpiration() != null) {
+                verified.put(digest, claims);
+            }
+            return claims;
         } catch (SignatureException e) {
-            System.err.println("Invalid JWT signature: " + e.getMessage());
+            logger.warn("Invalid JWT signature: " + e.getMessage());
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            logger.warn("Invalid JWT token: " + e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            logger.debug("JWT token is expired: " + e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            logger.warn("JWT token is unsupported: " + e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            logger.warn("JWT claims string is empty: " + e.getMessage());
         }
 
-        return false;
+        return null;
     }
-    
+
+    // Parsers are immutable and thread-safe, so one is built and shared
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+            parser = current;
+        }
+        return current;
+    }
+
+    // The cache is keyed by a SHA-256 of the whole token, so bearer tokens are not kept in memory
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     private SecretKey getSigningKey() {
         // Use cached key if available
         if (cachedSigningKey != null) {
@@ -85,7 +160,7 @@ public class JwtUtils {
             byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
             
             if (keyBytes.length < 32) { // 256 bits = 32 bytes
-                System.out.println("WARNING: JWT secret is less than 256 bits. Generating a secure key instead.");
+                logger.warn("JWT secret is less than 256 bits. Generating a secure key instead.");
                 cachedSigningKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
             } else {
                 cachedSigningKey = Keys.hmacShaKeyFor(keyBytes);
@@ -93,9 +168,8 @@ public class JwtUtils {
             
             return cachedSigningKey;
         } catch (Exception e) {
-            System.err.println("Error creating JWT signing key: " + e.getMessage());
             // Fallback to a secure randomly generated key
-            System.out.println("Falling back to a secure randomly generated key");
+            logger.error("Error creating JWT signing key, falling back to a random key: " + e.getMessage());
             cachedSigningKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
             return cachedSigningKey;
         }
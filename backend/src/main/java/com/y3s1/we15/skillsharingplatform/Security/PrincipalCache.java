@@ -0,0 +1,95 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Username -> {@link UserPrincipal} cache used to authenticate tokens issued
+ * before they carried the user's id and roles, and to resolve callers that
+ * logged in some other way, so a request does not read the users collection
+ * just to learn who is calling. Entries are dropped whenever the user is saved (which
+ * covers role and password changes) or deleted; the TTL bounds how long a
+ * change made outside this instance can go unnoticed.
+ */
+@Component
+public class PrincipalCache {
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, Optional<UserPrincipal>> principals;
+
+    public PrincipalCache(MongoTemplate mongoTemplate,
+                          @Value("${security.principal-cache.ttl-ms:60000}") long ttlMs,
+                          @Value("${security.principal-cache.max-entries:10000}") long maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * The principal for this username, or null if no such user exists.
+     */
+    public UserPrincipal get(String username) {
+        if (username == null) {
+            return null;
+        }
+        return principals.get(username, this::load).orElse(null);
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            principals.invalidate(username);
+        }
+    }
+
+    /**
+     * Drops the entry for this user id under whatever username it is cached,
+     * so a rename or delete cannot leave the old name authenticating.
+     */
+    public void invalidateUser(String userId) {
+        if (userId != null) {
+            principals.asMap().values().removeIf(
+                    principal -> principal.isPresent() && userId.equals(principal.get().getId()));
+        }
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats stats = principals.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", principals.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    // Unknown usernames are cached as empty too, so a stale token cannot force a read per request
+    private Optional<UserPrincipal> load(String username) {
+        Query query = new Query(Criteria.where("username").is(username));
+        query.fields().include("username").include("firstName").include("lastName")
+                .include("profilePicture").include("role");
+        UserModel user = mongoTemplate.findOne(query, UserModel.class);
+        if (user == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new UserPrincipal(user.getId(), user.getUsername(),
+                UserPrincipal.authorities(user.getRole()), UserSummary.from(user)));
+    }
+}
@@ -0,0 +1,81 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Current token version per user id. Every token records the version it was
+ * issued under, and is accepted only while that is still the user's version,
+ * so bumping it signs out every session at once. Versions are read from Mongo
+ * once and then served from memory; the TTL bounds how long a bump made by
+ * another instance goes unnoticed here.
+ */
+@Component
+public class TokenVersions {
+
+    // Cached for users that no longer exist, so their tokens never match
+    private static final long DELETED = -1;
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, Long> versions;
+
+    public TokenVersions(MongoTemplate mongoTemplate,
+                         @Value("${security.token-versions.ttl-ms:300000}") long ttlMs,
+                         @Value("${security.token-versions.max-entries:100000}") long maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    public boolean isCurrent(String userId, long version) {
+        return version >= 0 && version == current(userId);
+    }
+
+    public long current(String userId) {
+        return versions.get(userId, this::load);
+    }
+
+    /**
+     * Invalidates every token issued to this user so far.
+     *
+     * @return the new version, to put in the replacement token
+     */
+    public long revoke(String userId) {
+        UserModel user = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(userId)),
+                new Update().inc("tokenVersion", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                UserModel.class);
+        long version = user != null ? user.getTokenVersion() : DELETED;
+        versions.put(userId, version);
+        return version;
+    }
+
+    /**
+     * Forgets the cached version, e.g. once the user has been deleted.
+     */
+    public void invalidate(String userId) {
+        if (userId != null) {
+            versions.invalidate(userId);
+        }
+    }
+
+    private long load(String userId) {
+        Query query = new Query(Criteria.where("_id").is(userId));
+        query.fields().include("tokenVersion");
+        UserModel user = mongoTemplate.findOne(query, UserModel.class);
+        return user != null ? user.getTokenVersion() : DELETED;
+    }
+}
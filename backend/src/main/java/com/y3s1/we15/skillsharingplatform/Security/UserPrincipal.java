@@ -0,0 +1,76 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The signed-in user as seen by request handling: id, roles and display
+ * summary, without the password hash. Set as the principal of
+ * token-authenticated requests, built from the token's claims or, for tokens
+ * issued without them, by {@link PrincipalCache}. The summary is null when
+ * built from claims; {@link CurrentUser#getSummary()} fills it in on demand.
+ */
+public class UserPrincipal implements UserDetails {
+
+    private final String id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final UserSummary summary;
+
+    public UserPrincipal(String id, String username, List<GrantedAuthority> authorities, UserSummary summary) {
+        this.id = id;
+        this.username = username;
+        this.authorities = List.copyOf(authorities);
+        this.summary = summary;
+    }
+
+    /**
+     * Authorities for the stored role names; accounts saved without roles are plain users.
+     */
+    public static List<GrantedAuthority> authorities(Collection<String> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (roles == null || roles.isEmpty()) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        } else {
+            for (String role : roles) {
+                authorities.add(new SimpleGrantedAuthority(role));
+            }
+        }
+        return authorities;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    // Token requests never check a password, so none is kept
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasRole(String role) {
+        String name = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+        return authorities.stream().anyMatch(authority -> name.equalsIgnoreCase(authority.getAuthority()));
+    }
+
+    public UserSummary getSummary() {
+        return summary;
+    }
+}
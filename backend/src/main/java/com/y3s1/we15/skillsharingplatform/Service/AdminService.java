@@ -15,4 +15,13 @@ public interface AdminService {
     ResponseEntity<?> deletePost(String postId);
     ResponseEntity<?> deleteProgress(String progressId);
     ResponseEntity<?> deleteComment(String commentId);
+
+    // Monitoring
+    ResponseEntity<?> getSearchIndexStats();
+    ResponseEntity<?> getUserSearchIndexStats();
+    ResponseEntity<?> getPostCacheStats();
+    ResponseEntity<?> getPrincipalCacheStats();
+    ResponseEntity<?> getCascadeDeleteStats();
+    ResponseEntity<?> getCascadeDeleteJobs(String status, int limit);
+    ResponseEntity<?> retryCascadeDeleteJob(String jobId);
 } 
\ No newline at end of file
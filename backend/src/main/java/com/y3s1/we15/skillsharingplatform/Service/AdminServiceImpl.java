@@ -1,12 +1,14 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
+import com.y3s1.we15.skillsharingplatform.Models.CascadeDeleteJob;
 import com.y3s1.we15.skillsharingplatform.Models.Role;
 import com.y3s1.we15.skillsharingplatform.Models.UserModel;
-import com.y3s1.we15.skillsharingplatform.Repositories.CommentRepository;
 import com.y3s1.we15.skillsharingplatform.Repositories.PostRepository;
 import com.y3s1.we15.skillsharingplatform.Repositories.ProgressCommentRepository;
 import com.y3s1.we15.skillsharingplatform.Repositories.ProgressRepository;
 import com.y3s1.we15.skillsharingplatform.Repositories.UserRepository;
+import com.y3s1.we15.skillsharingplatform.Security.PrincipalCache;
+import com.y3s1.we15.skillsharingplatform.Security.TokenVersions;
 import com.y3s1.we15.skillsharingplatform.Security.payload.MessageResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,19 +29,55 @@ public class AdminServiceImpl implements AdminService {
     @Autowired
     private ProgressRepository progressRepository;
     
-    @Autowired
-    private CommentRepository commentRepository;
-    
     @Autowired
     private ProgressCommentRepository progressCommentRepository;
     
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PostCache postCache;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ProgressCommentService progressCommentService;
+
+    @Autowired
+    private CascadeDeleteService cascadeDeleteService;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
     @Override
     public ResponseEntity<?> deleteAllPosts() {
         try {
             postRepository.deleteAll();
+            postSearchIndex.clear();
+            postCache.invalidateAll();
+            collectionVersions.bump(CollectionVersions.POSTS);
+            timelineService.removeAll();
+            // Queues cascade jobs for whatever still references the deleted posts
+            cascadeDeleteService.scanOrphansNow();
             return ResponseEntity.ok(new MessageResponse("All posts have been deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
@@ -53,6 +91,7 @@ public class AdminServiceImpl implements AdminService {
             progressCommentRepository.deleteAll();
             // Then delete all progress records
             progressRepository.deleteAll();
+            collectionVersions.bump(CollectionVersions.PROGRESS);
             return ResponseEntity.ok(new MessageResponse("All progress records have been deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
@@ -62,10 +101,10 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public ResponseEntity<?> deleteAllComments() {
         try {
-            // Delete all post comments
-            commentRepository.deleteAll();
-            // Delete all progress comments
-            progressCommentRepository.deleteAll();
+            // Delete all post comments and zero the post counters
+            commentService.deleteAllComments();
+            // Delete all progress comments and zero the progress counters
+            progressCommentService.deleteAllComments();
             return ResponseEntity.ok(new MessageResponse("All comments have been deleted successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
@@ -92,6 +131,10 @@ public class AdminServiceImpl implements AdminService {
                 }
                 
                 userRepository.delete(user);
+                userSearchIndex.remove(userId);
+                principalCache.invalidateUser(userId);
+                tokenVersions.invalidate(userId);
+                followService.removeUser(userId);
                 return ResponseEntity.ok(new MessageResponse("User deleted successfully"));
             } else {
                 return ResponseEntity.badRequest().body(new MessageResponse("Error: User not found"));
@@ -128,6 +171,7 @@ public class AdminServiceImpl implements AdminService {
                     roles.add(Role.ROLE_ADMIN.name());
                     user.setRole(roles);
                     userRepository.save(user);
+                    tokenVersions.revoke(userId);
                     return ResponseEntity.ok(new MessageResponse("User promoted to admin successfully"));
                 } else {
                     return ResponseEntity.badRequest().body(new MessageResponse("User is already an admin"));
@@ -165,6 +209,7 @@ public class AdminServiceImpl implements AdminService {
                     }
                     user.setRole(roles);
                     userRepository.save(user);
+                    tokenVersions.revoke(userId);
                     return ResponseEntity.ok(new MessageResponse("Admin demoted to user successfully"));
                 } else {
                     return ResponseEntity.badRequest().body(new MessageResponse("User is not an admin"));
@@ -182,6 +227,10 @@ public class AdminServiceImpl implements AdminService {
         try {
             if (postRepository.existsById(postId)) {
                 postRepository.deleteById(postId);
+                postSearchIndex.remove(postId);
+                postCache.invalidate(postId);
+                collectionVersions.bump(CollectionVersions.POSTS);
+                cascadeDeleteService.schedule(postId);
                 return ResponseEntity.ok(new MessageResponse("Post deleted successfully"));
             } else {
                 return ResponseEntity.badRequest().body(new MessageResponse("Error: Post not found"));
@@ -199,6 +248,7 @@ public class AdminServiceImpl implements AdminService {
                 progressCommentRepository.deleteByProgressId(progressId);
                 // Then delete the progress
                 progressRepository.deleteById(progressId);
+                collectionVersions.bump(CollectionVersions.PROGRESS);
                 return ResponseEntity.ok(new MessageResponse("Progress record deleted successfully"));
             } else {
                 return ResponseEntity.badRequest().body(new MessageResponse("Error: Progress record not found"));
@@ -211,8 +261,7 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public ResponseEntity<?> deleteComment(String commentId) {
         try {
-            if (commentRepository.existsById(commentId)) {
-                commentRepository.deleteById(commentId);
+            if (commentService.deleteComment(commentId)) {
                 return ResponseEntity.ok(new MessageResponse("Comment deleted successfully"));
             } else {
                 return ResponseEntity.badRequest().body(new MessageResponse("Error: Comment not found"));
@@ -221,4 +270,47 @@ public class AdminServiceImpl implements AdminService {
             return ResponseEntity.badRequest().body(new MessageResponse("Error: " + e.getMessage()));
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public ResponseEntity<?> getSearchIndexStats() {
+        return ResponseEntity.ok(postSearchIndex.stats());
+    }
+
+    @Override
+    public ResponseEntity<?> getUserSearchIndexStats() {
+        return ResponseEntity.ok(userSearchIndex.stats());
+    }
+
+    @Override
+    public ResponseEntity<?> getPostCacheStats() {
+        return ResponseEntity.ok(postCache.stats());
+    }
+
+    @Override
+    public ResponseEntity<?> getPrincipalCacheStats() {
+        return ResponseEntity.ok(principalCache.stats());
+    }
+
+    @Override
+    public ResponseEntity<?> getCascadeDeleteStats() {
+        return ResponseEntity.ok(cascadeDeleteService.stats());
+    }
+
+    @Override
+    public ResponseEntity<?> getCascadeDeleteJobs(String status, int limit) {
+        try {
+            CascadeDeleteJob.Status filter = status != null ? CascadeDeleteJob.Status.valueOf(status.toUpperCase()) : null;
+            return ResponseEntity.ok(cascadeDeleteService.getJobs(filter, Math.max(1, Math.min(limit, 500))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse("Error: Unknown job status " + status));
+        }
+    }
+
+    @Override
+    public ResponseEntity<?> retryCascadeDeleteJob(String jobId) {
+        if (cascadeDeleteService.retry(jobId)) {
+            return ResponseEntity.ok(new MessageResponse("Cascade delete job queued for retry"));
+        }
+        return ResponseEntity.badRequest().body(new MessageResponse("Error: No failed job with id " + jobId));
+    }
+}
\ No newline at end of file
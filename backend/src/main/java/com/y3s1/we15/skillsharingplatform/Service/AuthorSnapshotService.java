@@ -0,0 +1,164 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.DBRef;
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import com.y3s1.we15.skillsharingplatform.Repositories.UserRepository;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the author snapshot embedded in each post in step with the user's
+ * profile. Posts are read without touching the users collection, so profile
+ * edits are fanned out to the user's posts in the background, in batches.
+ */
+@Service
+public class AuthorSnapshotService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthorSnapshotService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    private final PostCache postCache;
+    private final CollectionVersions collectionVersions;
+
+    @Value("${posts.author-snapshot.batch-size:500}")
+    private int batchSize;
+
+    public AuthorSnapshotService(MongoTemplate mongoTemplate, UserRepository userRepository, PostCache postCache,
+                                 CollectionVersions collectionVersions) {
+        this.mongoTemplate = mongoTemplate;
+        this.userRepository = userRepository;
+        this.postCache = postCache;
+        this.collectionVersions = collectionVersions;
+    }
+
+    /**
+     * Rewrites the author snapshot on every post by this user whose snapshot
+     * differs from the current profile. Safe to call repeatedly: once the
+     * posts are up to date the first batch query comes back empty.
+     *
+     * The profile is re-read for every batch rather than taken from the
+     * caller, so a job queued for an earlier edit that finishes last still
+     * ends on the newest profile instead of writing its stale one back.
+     */
+    @Async
+    public void propagateProfile(String userId) {
+        long updated = 0;
+        while (true) {
+            Optional<UserModel> user = userRepository.findById(userId);
+            if (!user.isPresent()) {
+                break;
+            }
+            UserSummary snapshot = UserSummary.from(user.get());
+            Criteria stale = Criteria.where("user.id").is(userId).orOperator(
+                    Criteria.where("user.username").ne(snapshot.getUsername()),
+                    Criteria.where("user.firstName").ne(snapshot.getFirstName()),
+                    Criteria.where("user.lastName").ne(snapshot.getLastName()),
+                    Criteria.where("user.profilePicture").ne(snapshot.getProfilePicture()));
+
+            Query batchQuery = new Query(stale).limit(batchSize);
+            batchQuery.fields().include("_id");
+            List<String> ids = mongoTemplate.find(batchQuery, Post.class).stream()
+                    .map(Post::getId)
+                    .collect(Collectors.toList());
+            if (ids.isEmpty()) {
+                break;
+            }
+            updated += mongoTemplate.updateMulti(
+                    new Query(Criteria.where("_id").in(ids)),
+                    new Update().set("user", snapshot),
+                    Post.class).getModifiedCount();
+            postCache.invalidateAll(ids);
+            collectionVersions.bump(CollectionVersions.POSTS);
+        }
+        if (updated > 0) {
+            logger.info("Refreshed author snapshot on " + updated + " posts for user " + userId);
+        }
+    }
+
+    /**
+     * One-off migration for posts written before the snapshot existed: they
+     * still hold a DBRef in the legacy "user" field. Each batch resolves its
+     * authors with a single findAllById and is written back as one bulk update.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLegacyPosts() {
+        String collection = mongoTemplate.getCollectionName(Post.class);
+        long migrated = 0;
+        try {
+            while (true) {
+                Query legacy = new Query(Criteria.where("author").exists(false).and("user").exists(true))
+                        .limit(batchSize);
+                legacy.fields().include("_id").include("user");
+                List<Document> batch = mongoTemplate.find(legacy, Document.class, collection);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                Set<String> userIds = new HashSet<>();
+                for (Document post : batch) {
+                    String authorId = legacyAuthorId(post.get("user"));
+                    if (authorId != null) {
+                        userIds.add(authorId);
+                    }
+                }
+                Map<String, UserSummary> authors = new HashMap<>();
+                for (UserModel author : userRepository.findAllById(userIds)) {
+                    authors.put(author.getId(), UserSummary.from(author));
+                }
+
+                // Raw collection bulk so the legacy "user" field can be unset in the same write
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                for (Document post : batch) {
+                    String authorId = legacyAuthorId(post.get("user"));
+                    UserSummary author = authorId != null ? authors.get(authorId) : null;
+                    // Authors that no longer exist still get a stub so the post is not revisited
+                    Object snapshot = mongoTemplate.getConverter()
+                            .convertToMongoType(author != null ? author : new UserSummary());
+                    bulk.updateOne(new Query(Criteria.where("_id").is(post.get("_id"))),
+                            new Update().set("author", snapshot).unset("user"));
+                }
+                bulk.execute();
+                collectionVersions.bump(CollectionVersions.POSTS);
+                migrated += batch.size();
+            }
+            if (migrated > 0) {
+                logger.info("Migrated " + migrated + " posts to embedded author snapshots");
+            }
+        } catch (Exception e) {
+            logger.error("Author snapshot backfill failed: " + e.getMessage());
+        }
+    }
+
+    // Depending on the codec the DBRef arrives either decoded or as a {$ref, $id} document
+    private String legacyAuthorId(Object ref) {
+        if (ref instanceof DBRef) {
+            return ((DBRef) ref).getId().toString();
+        }
+        if (ref instanceof Document && ((Document) ref).get("$id") != null) {
+            return ((Document) ref).get("$id").toString();
+        }
+        return null;
+    }
+}
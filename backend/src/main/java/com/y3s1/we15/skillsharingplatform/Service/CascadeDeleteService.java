@@ -0,0 +1,297 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.CascadeDeleteJob;
+import com.y3s1.we15.skillsharingplatform.Models.Comment;
+import com.y3s1.we15.skillsharingplatform.Models.Like;
+import com.y3s1.we15.skillsharingplatform.Models.Notification;
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Models.Progress;
+import com.y3s1.we15.skillsharingplatform.Models.TimelineEntry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Removes the documents that reference a deleted post, off the request
+ * thread. Deleting a post only queues a {@link CascadeDeleteJob}; a scheduled
+ * worker claims due jobs and deletes dependents a bounded batch at a time,
+ * retrying failed jobs with exponential backoff.
+ *
+ * A periodic scan counts dependents whose post no longer exists. It only
+ * reports by default; with cascade.orphan-repair on it also queues jobs for
+ * them, which covers posts removed outside these code paths.
+ */
+@Service
+public class CascadeDeleteService {
+    private static final Logger logger = LoggerFactory.getLogger(CascadeDeleteService.class);
+
+    // Every dependent collection references its post through a string postId
+    private static final List<Class<?>> DEPENDENTS = Arrays.asList(
+            Comment.class, Like.class, Notification.class, TimelineEntry.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Map<String, Object> lastOrphanScan = Collections.emptyMap();
+
+    @Value("${cascade.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${cascade.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${cascade.retry-backoff-ms:30000}")
+    private long retryBackoffMs;
+
+    @Value("${cascade.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${cascade.orphan-repair:false}")
+    private boolean orphanRepair;
+
+    @Value("${cascade.max-jobs-per-pass:10}")
+    private int maxJobsPerPass;
+
+    public CascadeDeleteService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Queues removal of the post's dependents. Call after the post itself is gone.
+     */
+    public CascadeDeleteJob schedule(String postId) {
+        return mongoTemplate.insert(new CascadeDeleteJob(postId));
+    }
+
+    /**
+     * Runs due jobs one at a time, at most cascade.max-jobs-per-pass of them,
+     * so one pass never holds a scheduler thread for long. Whatever is left
+     * is picked up by the next poll.
+     */
+    @Scheduled(fixedDelayString = "${cascade.poll-interval-ms:5000}")
+    public void processJobs() {
+        CascadeDeleteJob job;
+        for (int claimed = 0; claimed < maxJobsPerPass && (job = claimNext()) != null; claimed++) {
+            run(job);
+        }
+    }
+
+    /**
+     * Counts the dependents of posts that no longer exist and, when
+     * cascade.orphan-repair is on, queues a job for each such post.
+     */
+    @Scheduled(fixedDelayString = "${cascade.orphan-scan-interval-ms:3600000}",
+            initialDelayString = "${cascade.orphan-scan-interval-ms:3600000}")
+    public void scanOrphans() {
+        long started = System.currentTimeMillis();
+        Map<String, Object> scan = new LinkedHashMap<>();
+        Map<String, Long> orphans = new LinkedHashMap<>();
+        Set<String> missingPosts = new HashSet<>();
+        try {
+            for (Class<?> type : DEPENDENTS) {
+                String collection = mongoTemplate.getCollectionName(type);
+                // Streamed $group rather than distinct, which returns every value in one 16 MB reply
+                Aggregation postIds = Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("postId").ne(null)),
+                        Aggregation.group("postId"))
+                        .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+                long count = 0;
+                try (Stream<Document> stream = mongoTemplate.aggregateStream(postIds, collection, Document.class)) {
+                    Iterator<Document> results = stream.iterator();
+                    List<String> batch = new ArrayList<>();
+                    while (results.hasNext()) {
+                        batch.add(String.valueOf(results.next().get("_id")));
+                        if (batch.size() >= batchSize || !results.hasNext()) {
+                            List<String> missing = missingPosts(batch);
+                            if (!missing.isEmpty()) {
+                                count += mongoTemplate.count(new Query(Criteria.where("postId").in(missing)), collection);
+                                missingPosts.addAll(missing);
+                            }
+                            batch.clear();
+                        }
+                    }
+                }
+                orphans.put(collection, count);
+            }
+
+            int queued = 0;
+            if (orphanRepair && !missingPosts.isEmpty()) {
+                Query open = new Query(Criteria.where("postId").in(missingPosts)
+                        .and("status").in(CascadeDeleteJob.Status.PENDING, CascadeDeleteJob.Status.RUNNING));
+                open.fields().include("postId");
+                Set<String> covered = mongoTemplate.find(open, CascadeDeleteJob.class).stream()
+                        .map(CascadeDeleteJob::getPostId)
+                        .collect(Collectors.toSet());
+                for (String postId : missingPosts) {
+                    if (!covered.contains(postId)) {
+                        schedule(postId);
+                        queued++;
+                    }
+                }
+            }
+
+            scan.put("scannedAt", LocalDateTime.now());
+            scan.put("durationMs", System.currentTimeMillis() - started);
+            scan.put("orphanedDocuments", orphans);
+            scan.put("orphanedPosts", missingPosts.size());
+            scan.put("jobsQueued", queued);
+            lastOrphanScan = scan;
+            if (!missingPosts.isEmpty()) {
+                logger.warn("Found dependents of " + missingPosts.size() + " deleted posts: " + orphans
+                        + ", queued " + queued + " cascade jobs");
+            }
+        } catch (Exception e) {
+            logger.error("Orphan scan failed: " + e.getMessage());
+        }
+    }
+
+    @Async
+    public void scanOrphansNow() {
+        scanOrphans();
+    }
+
+    /**
+     * Most recent jobs first, optionally only those in the given status.
+     */
+    public List<CascadeDeleteJob> getJobs(CascadeDeleteJob.Status status, int limit) {
+        Query query = status != null ? new Query(Criteria.where("status").is(status)) : new Query();
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt")).limit(limit);
+        return mongoTemplate.find(query, CascadeDeleteJob.class);
+    }
+
+    /**
+     * Puts a failed job back in the queue with a fresh set of attempts.
+     *
+     * @return false if there is no failed job with this id
+     */
+    public boolean retry(String jobId) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(jobId).and("status").is(CascadeDeleteJob.Status.FAILED)),
+                new Update().set("status", CascadeDeleteJob.Status.PENDING)
+                        .set("attempts", 0)
+                        .set("nextAttemptAt", LocalDateTime.now()),
+                CascadeDeleteJob.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Job counts by status and the result of the last orphan scan.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Long> jobs = new LinkedHashMap<>();
+        for (CascadeDeleteJob.Status status : CascadeDeleteJob.Status.values()) {
+            jobs.put(status.name(), mongoTemplate.count(
+                    new Query(Criteria.where("status").is(status)), CascadeDeleteJob.class));
+        }
+        stats.put("jobs", jobs);
+        stats.put("lastOrphanScan", lastOrphanScan);
+        return stats;
+    }
+
+    // Picks up a due PENDING job, or a RUNNING one whose worker stopped renewing its lease
+    private CascadeDeleteJob claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria due = new Criteria().orOperator(
+                Criteria.where("status").is(CascadeDeleteJob.Status.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(CascadeDeleteJob.Status.RUNNING).and("leaseExpiresAt").lte(now));
+        return mongoTemplate.findAndModify(
+                new Query(due).with(Sort.by(Sort.Direction.ASC, "nextAttemptAt")),
+                new Update().set("status", CascadeDeleteJob.Status.RUNNING)
+                        .set("leaseExpiresAt", now.plus(Duration.ofMillis(leaseMs)))
+                        .inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                CascadeDeleteJob.class);
+    }
+
+    private void run(CascadeDeleteJob job) {
+        Query byId = new Query(Criteria.where("_id").is(job.getId()));
+        try {
+            // Never take notifications that belong to a live progress update
+            boolean progressTarget = mongoTemplate.exists(
+                    new Query(Criteria.where("_id").is(job.getPostId())), Progress.class);
+            for (Class<?> type : DEPENDENTS) {
+                if (progressTarget && type == Notification.class) {
+                    continue;
+                }
+                String collection = mongoTemplate.getCollectionName(type);
+                while (true) {
+                    Query batch = new Query(Criteria.where("postId").is(job.getPostId())).limit(batchSize);
+                    batch.fields().include("_id");
+                    List<Object> ids = new ArrayList<>();
+                    for (Document document : mongoTemplate.find(batch, Document.class, collection)) {
+                        ids.add(document.get("_id"));
+                    }
+                    if (ids.isEmpty()) {
+                        break;
+                    }
+                    long removed = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), collection)
+                            .getDeletedCount();
+                    mongoTemplate.updateFirst(byId,
+                            new Update().inc("deleted." + collection, removed)
+                                    .set("leaseExpiresAt", LocalDateTime.now().plus(Duration.ofMillis(leaseMs))),
+                            CascadeDeleteJob.class);
+                }
+            }
+            mongoTemplate.updateFirst(byId,
+                    new Update().set("status", CascadeDeleteJob.Status.DONE)
+                            .set("completedAt", LocalDateTime.now())
+                            .unset("leaseExpiresAt")
+                            .unset("lastError"),
+                    CascadeDeleteJob.class);
+        } catch (Exception e) {
+            boolean exhausted = job.getAttempts() >= maxAttempts;
+            long backoff = retryBackoffMs << Math.min(job.getAttempts() - 1, 10);
+            mongoTemplate.updateFirst(byId,
+                    new Update().set("status", exhausted ? CascadeDeleteJob.Status.FAILED : CascadeDeleteJob.Status.PENDING)
+                            .set("lastError", e.getMessage())
+                            .set("nextAttemptAt", LocalDateTime.now().plus(Duration.ofMillis(backoff)))
+                            .unset("leaseExpiresAt"),
+                    CascadeDeleteJob.class);
+            logger.error("Cascade delete for post " + job.getPostId() + " failed on attempt " + job.getAttempts()
+                    + (exhausted ? ", giving up: " : ", will retry: ") + e.getMessage());
+        }
+    }
+
+    // Notifications about progress updates carry the progress id in postId, so an id only
+    // counts as missing when it matches neither a post nor a progress update
+    private List<String> missingPosts(List<String> postIds) {
+        Query existing = new Query(Criteria.where("_id").in(postIds));
+        existing.fields().include("_id");
+        Set<String> found = mongoTemplate.find(existing, Post.class).stream()
+                .map(Post::getId)
+                .collect(Collectors.toSet());
+        List<String> unmatched = postIds.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
+        if (unmatched.isEmpty()) {
+            return unmatched;
+        }
+        Query progress = new Query(Criteria.where("_id").in(unmatched));
+        progress.fields().include("_id");
+        mongoTemplate.find(progress, Progress.class).forEach(update -> found.add(update.getId()));
+        return unmatched.stream().filter(id -> !found.contains(id)).collect(Collectors.toList());
+    }
+}
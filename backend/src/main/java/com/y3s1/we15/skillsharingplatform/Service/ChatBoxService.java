@@ -1,121 +1,149 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
 import com.y3s1.we15.skillsharingplatform.Models.ChatBox;
-import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Repositories.ChatBoxRepository;
 import com.y3s1.we15.skillsharingplatform.Repositories.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import java.util.*;
 
 @Service
 public class ChatBoxService {
-    
-    @Autowired
-    private ChatBoxRepository chatBoxRepository;
-    
-    @Autowired
-    private UserRepository userRepository;
+    private static final Logger logger = LoggerFactory.getLogger(ChatBoxService.class);
+
+    private final ChatBoxRepository chatBoxRepository;
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ConversationService conversationService;
+    private final int migrationBatchSize;
+
+    public ChatBoxService(ChatBoxRepository chatBoxRepository, UserRepository userRepository,
+                          MongoTemplate mongoTemplate, ConversationService conversationService,
+                          @Value("${chat.migration.batch-size:500}") int migrationBatchSize) {
+        this.chatBoxRepository = chatBoxRepository;
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.conversationService = conversationService;
+        this.migrationBatchSize = migrationBatchSize;
+    }
     
     public List<ChatBox> getMessagesBetweenUsers(String userId1, String userId2) {
-        UserModel user1 = userRepository.findById(userId1)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        UserModel user2 = userRepository.findById(userId2)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return chatBoxRepository.findBySenderAndRecipientOrRecipientAndSenderOrderByCreatedAtAsc(user1, user2, user1, user2);
+        return chatBoxRepository.findByConversationIdOrderByCreatedAtAsc(ChatBox.conversationId(userId1, userId2));
     }
     
     public ChatBox sendMessage(String senderId, String recipientId, String content) {
-        UserModel sender = userRepository.findById(senderId)
-            .orElseThrow(() -> new RuntimeException("Sender not found"));
-        UserModel recipient = userRepository.findById(recipientId)
-            .orElseThrow(() -> new RuntimeException("Recipient not found"));
-            
-        ChatBox message = new ChatBox();
-        message.setSender(sender);
-        message.setRecipient(recipient);
-        message.setContent(content);
-        
-        return chatBoxRepository.save(message);
+        if (!userRepository.existsById(senderId)) {
+            throw new RuntimeException("Sender not found");
+        }
+        if (!userRepository.existsById(recipientId)) {
+            throw new RuntimeException("Recipient not found");
+        }
+        ChatBox message = chatBoxRepository.save(new ChatBox(senderId, recipientId, content));
+        conversationService.messageSent(message);
+        return message;
     }
     
     public ChatBox editMessage(String messageId, String newContent) {
         ChatBox message = chatBoxRepository.findById(messageId)
             .orElseThrow(() -> new RuntimeException("Message not found"));
         message.setContent(newContent);
-        return chatBoxRepository.save(message);
+        message.updateTimestamp();
+        ChatBox saved = chatBoxRepository.save(message);
+        conversationService.messageEdited(saved);
+        return saved;
     }
     
     public void deleteMessage(String messageId) {
-        chatBoxRepository.deleteById(messageId);
+        Optional<ChatBox> message = chatBoxRepository.findById(messageId);
+        if (message.isPresent()) {
+            chatBoxRepository.delete(message.get());
+            conversationService.messageDeleted(message.get());
+        }
+    }
+
+    public void markConversationRead(String userId, String otherUserId) {
+        conversationService.markRead(userId, otherUserId);
     }
     
+    /**
+     * Every message the user sent or received, oldest first.
+     */
     public List<ChatBox> getUserMessages(String userId) {
-        UserModel user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return chatBoxRepository.findBySenderAndRecipientOrRecipientAndSenderOrderByCreatedAtAsc(user, user, user, user);
+        return chatBoxRepository.findBySenderIdOrRecipientIdOrderByCreatedAtAsc(userId, userId);
     }
     
-    public List<Map<String, Object>> getRecentChats(String userId) {
-        UserModel currentUser = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-            
-        // Get all messages where the user is either sender or recipient
-        List<ChatBox> allMessages = chatBoxRepository.findBySenderAndRecipientOrRecipientAndSenderOrderByCreatedAtAsc(
-            currentUser, currentUser, currentUser, currentUser);
-            
-        // Group messages by the other user (conversation partner)
-        Map<String, List<ChatBox>> messagesByUser = new HashMap<>();
-        
-        for (ChatBox message : allMessages) {
-            String otherUserId;
-            if (message.getSender().getId().equals(userId)) {
-                otherUserId = message.getRecipient().getId();
-            } else {
-                otherUserId = message.getSender().getId();
+    /**
+     * One page of the user's conversations, most recently active first.
+     */
+    public CursorPage<Map<String, Object>> getRecentChats(String userId, String cursor, Integer limit) {
+        return conversationService.getRecentChats(userId, cursor, limit);
+    }
+
+    /**
+     * Rewrites messages saved with whole sender and recipient user documents
+     * embedded (password hashes included) to carry just the two ids and the
+     * conversation id, a batch at a time. Rewritten messages no longer match,
+     * so a rerun only picks up what is left.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateEmbeddedUsers() {
+        String collection = mongoTemplate.getCollectionName(ChatBox.class);
+        long migrated = 0;
+        try {
+            while (true) {
+                Query pending = new Query(Criteria.where("senderId").exists(false)).limit(migrationBatchSize);
+                pending.fields().include("sender._id").include("recipient._id");
+                List<Document> batch = mongoTemplate.find(pending, Document.class, collection);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+                for (Document message : batch) {
+                    String senderId = embeddedId(message.get("sender"));
+                    String recipientId = embeddedId(message.get("recipient"));
+                    // Messages missing either side still get the fields set (to null) so they are not picked up again
+                    String conversationId = senderId != null && recipientId != null
+                            ? ChatBox.conversationId(senderId, recipientId) : null;
+                    bulk.updateOne(new Query(Criteria.where("_id").is(message.get("_id"))),
+                            new Update().set("senderId", senderId)
+                                    .set("recipientId", recipientId)
+                                    .set("conversationId", conversationId)
+                                    .unset("sender")
+                                    .unset("recipient"));
+                }
+                bulk.execute();
+                migrated += batch.size();
             }
-            
-            if (!messagesByUser.containsKey(otherUserId)) {
-                messagesByUser.put(otherUserId, new ArrayList<>());
+            if (migrated > 0) {
+                logger.info("Rewrote " + migrated + " chat messages to reference users by id");
             }
-            messagesByUser.get(otherUserId).add(message);
+            // Rewritten messages may belong to conversations that have no summary yet
+            conversationService.backfill(migrated > 0);
+        } catch (Exception e) {
+            logger.error("Chat message migration failed: " + e.getMessage());
         }
-        
-        // For each conversation, get the most recent message and user details
-        List<Map<String, Object>> recentChats = new ArrayList<>();
-        
-        for (Map.Entry<String, List<ChatBox>> entry : messagesByUser.entrySet()) {
-            String otherUserId = entry.getKey();
-            List<ChatBox> conversation = entry.getValue();
-            
-            // Sort by created timestamp descending to get the most recent message
-            conversation.sort(Comparator.comparing(ChatBox::getCreatedAt).reversed());
-            ChatBox latestMessage = conversation.get(0);
-            
-            // Get the other user details
-            UserModel otherUser = userRepository.findById(otherUserId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-                
-            Map<String, Object> chatInfo = new HashMap<>();
-            chatInfo.put("userId", otherUser.getId());
-            chatInfo.put("username", otherUser.getUsername());
-            chatInfo.put("firstName", otherUser.getFirstName());
-            chatInfo.put("lastName", otherUser.getLastName());
-            chatInfo.put("profilePicture", otherUser.getProfilePicture());
-            chatInfo.put("lastMessage", latestMessage.getContent());
-            chatInfo.put("timestamp", latestMessage.getCreatedAt());
-            chatInfo.put("isRead", true); // Add logic for read status if needed
-            
-            recentChats.add(chatInfo);
+    }
+
+    // Embedded users were mapped with their id as _id, an ObjectId for normal accounts
+    private static String embeddedId(Object user) {
+        if (!(user instanceof Document)) {
+            return null;
         }
-        
-        // Sort recent chats by the timestamp of the last message (most recent first)
-        recentChats.sort((a, b) -> {
-            Date dateA = (Date) a.get("timestamp");
-            Date dateB = (Date) b.get("timestamp");
-            return dateB.compareTo(dateA);
-        });
-        
-        return recentChats;
+        Object id = ((Document) user).get("_id");
+        return id != null ? id.toString() : null;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps for list endpoints. Every write to a collection bumps its
+ * stamp, so a list ETag built from the stamp and the request parameters stays
+ * valid exactly as long as nothing in the collection has changed.
+ *
+ * Stamps live in memory and start from the boot time, so a restart
+ * invalidates every list ETag handed out before it.
+ */
+@Service
+public class CollectionVersions {
+
+    public static final String POSTS = "posts";
+    public static final String PROGRESS = "progress";
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void bump(String collection) {
+        versions.computeIfAbsent(collection, c -> new AtomicLong()).incrementAndGet();
+    }
+
+    public long current(String collection) {
+        AtomicLong version = versions.get(collection);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * Weak ETag for a listing of the collection. {@code parameters} must cover
+     * everything that shapes the response: filters, cursor, page size, viewer.
+     */
+    public String etag(String collection, Object... parameters) {
+        return EntityTags.weak(collection, epoch, current(collection), parameters);
+    }
+}
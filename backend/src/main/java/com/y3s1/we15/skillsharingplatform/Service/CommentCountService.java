@@ -0,0 +1,182 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.Comment;
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps Post.commentCount in step with the comments collection, so comment
+ * totals are a field read instead of a count over the post's comments.
+ * Counters are moved with $inc on every add and delete; a scheduled pass
+ * recounts posts in batches and repairs any that drifted.
+ */
+@Service
+public class CommentCountService {
+    private static final Logger logger = LoggerFactory.getLogger(CommentCountService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final PostCache postCache;
+    private final CollectionVersions collectionVersions;
+
+    @Value("${comments.count.batch-size:500}")
+    private int batchSize;
+
+    public CommentCountService(MongoTemplate mongoTemplate, PostCache postCache,
+                               CollectionVersions collectionVersions) {
+        this.mongoTemplate = mongoTemplate;
+        this.postCache = postCache;
+        this.collectionVersions = collectionVersions;
+    }
+
+    public void increment(String postId, int delta) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(postId)),
+                new Update().inc("commentCount", delta), Post.class);
+        postCache.invalidate(postId);
+        collectionVersions.bump(CollectionVersions.POSTS);
+    }
+
+    // Used after every comment has been deleted
+    public void resetAll() {
+        mongoTemplate.updateMulti(new Query(Criteria.where("commentCount").ne(0)),
+                new Update().set("commentCount", 0), Post.class);
+        postCache.invalidateAll();
+        collectionVersions.bump(CollectionVersions.POSTS);
+    }
+
+    /**
+     * Stored comment total for the post, or 0 if the post does not exist.
+     */
+    public long getCount(String postId) {
+        Query query = new Query(Criteria.where("_id").is(postId));
+        query.fields().include("commentCount");
+        Post post = mongoTemplate.findOne(query, Post.class);
+        return post != null ? post.getCommentCount() : 0;
+    }
+
+    /**
+     * Posts written before commentCount existed get it counted once, a batch
+     * of posts per aggregation.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingCounts() {
+        long updated = 0;
+        try {
+            while (true) {
+                Query missing = new Query(Criteria.where("commentCount").exists(false)).limit(batchSize);
+                missing.fields().include("_id");
+                List<String> postIds = mongoTemplate.find(missing, Post.class).stream()
+                        .map(Post::getId)
+                        .collect(Collectors.toList());
+                if (postIds.isEmpty()) {
+                    break;
+                }
+                writeCounts(postIds, countComments(postIds));
+                updated += postIds.size();
+            }
+            if (updated > 0) {
+                logger.info("Backfilled commentCount on " + updated + " posts");
+            }
+        } catch (Exception e) {
+            logger.error("Comment count backfill failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Walks every post in _id order, recounts its comments and rewrites the
+     * counters that disagree. A rewrite only applies if the stored value is
+     * still the one that was compared, so an $inc that lands mid-pass is kept
+     * and any remaining difference is picked up by the next pass.
+     */
+    @Scheduled(fixedDelayString = "${comments.count.reconcile-interval-ms:3600000}",
+            initialDelayString = "${comments.count.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long checked = 0;
+        long repaired = 0;
+        String lastId = null;
+        try {
+            while (true) {
+                Query batchQuery = new Query();
+                if (lastId != null) {
+                    batchQuery.addCriteria(Criteria.where("_id").gt(ObjectId.isValid(lastId) ? new ObjectId(lastId) : lastId));
+                }
+                batchQuery.with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+                batchQuery.fields().include("commentCount");
+                List<Post> posts = mongoTemplate.find(batchQuery, Post.class);
+                if (posts.isEmpty()) {
+                    break;
+                }
+                lastId = posts.get(posts.size() - 1).getId();
+                checked += posts.size();
+
+                List<String> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+                Map<String, Integer> counts = countComments(postIds);
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+                List<String> drifted = new ArrayList<>();
+                for (Post post : posts) {
+                    int actual = counts.getOrDefault(post.getId(), 0);
+                    if (post.getCommentCount() != actual) {
+                        bulk.updateOne(new Query(Criteria.where("_id").is(post.getId())
+                                        .and("commentCount").is(post.getCommentCount())),
+                                new Update().set("commentCount", actual));
+                        drifted.add(post.getId());
+                    }
+                }
+                if (!drifted.isEmpty()) {
+                    repaired += bulk.execute().getModifiedCount();
+                    postCache.invalidateAll(drifted);
+                    collectionVersions.bump(CollectionVersions.POSTS);
+                }
+            }
+            if (repaired > 0) {
+                logger.warn("Repaired commentCount on " + repaired + " of " + checked + " posts");
+            }
+        } catch (Exception e) {
+            logger.error("Comment count reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    Map<String, Integer> countComments(List<String> postIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("postId").in(postIds)),
+                Aggregation.group("postId").count().as("count"));
+        Map<String, Integer> counts = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, Comment.class, Document.class)) {
+            counts.put(result.get("_id").toString(), ((Number) result.get("count")).intValue());
+        }
+        return counts;
+    }
+
+    void writeCounts(List<String> postIds, Map<String, Integer> counts) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        for (String postId : postIds) {
+            bulk.updateOne(new Query(Criteria.where("_id").is(postId)),
+                    new Update().set("commentCount", counts.getOrDefault(postId, 0)));
+        }
+        bulk.execute();
+        postCache.invalidateAll(postIds);
+        collectionVersions.bump(CollectionVersions.POSTS);
+    }
+}
@@ -1,8 +1,14 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
 import com.y3s1.we15.skillsharingplatform.Models.Comment;
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Repositories.CommentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -15,15 +21,57 @@ public class CommentService {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CommentCountService commentCountService;
+
+    @Value("${comments.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${comments.page.max-size:200}")
+    private int maxPageSize;
+
     public Comment addComment(Comment comment) {
         comment.setCreatedAt(LocalDateTime.now());
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        commentCountService.increment(saved.getPostId(), 1);
+        return saved;
     }
 
     public List<Comment> getCommentsByPost(String postId) {
         return commentRepository.findByPostId(postId);
     }
 
+    /**
+     * Oldest-first page of a post's comments, continuing after {@code cursor}
+     * when given. Served by the (postId, createdAt, _id) index.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<Comment> getCommentsPage(String postId, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        Query query = new Query(Criteria.where("postId").is(postId));
+        if (cursor != null && !cursor.isEmpty()) {
+            query.addCriteria(KeysetCursor.decode(cursor).after(false));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "_id")));
+        query.limit(pageSize + 1);
+
+        List<Comment> comments = mongoTemplate.find(query, Comment.class);
+        if (comments.size() <= pageSize) {
+            return new CursorPage<>(comments, null);
+        }
+        List<Comment> page = comments.subList(0, pageSize);
+        Comment last = page.get(pageSize - 1);
+        return new CursorPage<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    public long countCommentsByPost(String postId) {
+        return commentCountService.getCount(postId);
+    }
+
     public Optional<Comment> getCommentById(String id) {
         return commentRepository.findById(id);
     }
@@ -38,7 +86,23 @@ public class CommentService {
         return null;
     }
 
-    public void deleteComment(String id) {
-        commentRepository.deleteById(id);
+    /**
+     * @return false if there was no comment with this id
+     */
+    public boolean deleteComment(String id) {
+        // findAndRemove hands the comment to exactly one caller, so the count drops once
+        Comment removed = mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(id)), Comment.class);
+        if (removed == null) {
+            return false;
+        }
+        if (removed.getPostId() != null) {
+            commentCountService.increment(removed.getPostId(), -1);
+        }
+        return true;
+    }
+
+    public void deleteAllComments() {
+        commentRepository.deleteAll();
+        commentCountService.resetAll();
     }
 }
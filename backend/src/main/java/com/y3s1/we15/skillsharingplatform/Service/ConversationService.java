@@ -0,0 +1,252 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.ChatBox;
+import com.y3s1.we15.skillsharingplatform.Models.ConversationSummary;
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains one {@link ConversationSummary} per chatting pair: the latest
+ * message and how many messages each side has not read yet. Every change is
+ * a single-document update, applied right after the message write it
+ * reflects, and guarded so that racing writes cannot move a summary back to
+ * an older message.
+ */
+@Service
+public class ConversationService {
+    private static final Logger logger = LoggerFactory.getLogger(ConversationService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final UserSummaryService userSummaryService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int batchSize;
+
+    public ConversationService(MongoTemplate mongoTemplate, UserSummaryService userSummaryService,
+                               @Value("${chat.recent.page.default-size:30}") int defaultPageSize,
+                               @Value("${chat.recent.page.max-size:100}") int maxPageSize,
+                               @Value("${chat.migration.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.userSummaryService = userSummaryService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.batchSize = batchSize;
+    }
+
+    public void messageSent(ChatBox message) {
+        Query byId = new Query(Criteria.where("_id").is(message.getConversationId()));
+        mongoTemplate.upsert(byId,
+                new Update().setOnInsert("participantIds", participants(message))
+                        .inc("unread." + message.getRecipientId(), 1),
+                ConversationSummary.class);
+
+        // Only moves forward: a send that lost the race to a newer one leaves the summary alone
+        Query notNewer = new Query(Criteria.where("_id").is(message.getConversationId()))
+                .addCriteria(new Criteria().orOperator(
+                        Criteria.where("lastMessageAt").is(null),
+                        Criteria.where("lastMessageAt").lte(message.getCreatedAt())));
+        mongoTemplate.updateFirst(notNewer, lastMessage(message), ConversationSummary.class);
+    }
+
+    public void messageEdited(ChatBox message) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(message.getConversationId())
+                        .and("lastMessageId").is(message.getId())),
+                new Update().set("lastMessage", message.getContent()),
+                ConversationSummary.class);
+    }
+
+    /**
+     * Call once the message itself is gone.
+     */
+    public void messageDeleted(ChatBox message) {
+        String conversationId = message.getConversationId();
+        if (conversationId == null) {
+            return;
+        }
+        String recipientId = message.getRecipientId();
+
+        // One fewer unread if the recipient had not opened the conversation since it arrived
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(conversationId)
+                        .and("unread." + recipientId).gt(0))
+                        .addCriteria(new Criteria().orOperator(
+                                Criteria.where("lastReadAt." + recipientId).is(null),
+                                Criteria.where("lastReadAt." + recipientId).lt(message.getCreatedAt()))),
+                new Update().inc("unread." + recipientId, -1),
+                ConversationSummary.class);
+
+        // If it was the latest message, the one before it takes its place
+        Query wasLast = new Query(Criteria.where("_id").is(conversationId).and("lastMessageId").is(message.getId()));
+        if (!mongoTemplate.exists(wasLast, ConversationSummary.class)) {
+            return;
+        }
+        ChatBox previous = mongoTemplate.findOne(
+                new Query(Criteria.where("conversationId").is(conversationId))
+                        .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                        .limit(1),
+                ChatBox.class);
+        if (previous == null) {
+            mongoTemplate.remove(wasLast, ConversationSummary.class);
+        } else {
+            mongoTemplate.updateFirst(wasLast, lastMessage(previous), ConversationSummary.class);
+        }
+    }
+
+    /**
+     * Clears the user's unread count for their conversation with the other user.
+     */
+    public void markRead(String userId, String otherUserId) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(ChatBox.conversationId(userId, otherUserId))),
+                new Update().set("unread." + userId, 0L).set("lastReadAt." + userId, LocalDateTime.now()),
+                ConversationSummary.class);
+    }
+
+    /**
+     * The user's conversations, most recently active first, each with the
+     * partner's display details, the last message and the user's unread count.
+     *
+     * @throws IllegalArgumentException if the cursor is not one this listing produced
+     */
+    public CursorPage<Map<String, Object>> getRecentChats(String userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        Query query = new Query(Criteria.where("participantIds").is(userId));
+        if (cursor != null && !cursor.isEmpty()) {
+            query.addCriteria(KeysetCursor.decode(cursor).after(true, "lastMessageAt", "_id"));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "lastMessageAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                .limit(pageSize + 1);
+        List<ConversationSummary> conversations = mongoTemplate.find(query, ConversationSummary.class);
+
+        String nextCursor = null;
+        if (conversations.size() > pageSize) {
+            conversations = conversations.subList(0, pageSize);
+            ConversationSummary last = conversations.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getLastMessageAt(), last.getId()).encode();
+        }
+
+        // Partner details in one batched lookup
+        List<String> partnerIds = conversations.stream().map(c -> c.partnerOf(userId)).collect(Collectors.toList());
+        Map<String, UserSummary> partners = userSummaryService.getSummaries(partnerIds).stream()
+                .collect(Collectors.toMap(UserSummary::getId, Function.identity()));
+
+        List<Map<String, Object>> chats = new ArrayList<>();
+        for (ConversationSummary conversation : conversations) {
+            UserSummary partner = partners.get(conversation.partnerOf(userId));
+            if (partner == null) {
+                continue;
+            }
+            long unread = conversation.unreadFor(userId);
+            Map<String, Object> chatInfo = new HashMap<>();
+            chatInfo.put("conversationId", conversation.getId());
+            chatInfo.put("userId", partner.getId());
+            chatInfo.put("username", partner.getUsername());
+            chatInfo.put("firstName", partner.getFirstName());
+            chatInfo.put("lastName", partner.getLastName());
+            chatInfo.put("profilePicture", partner.getProfilePicture());
+            chatInfo.put("lastMessage", conversation.getLastMessage());
+            chatInfo.put("lastSenderId", conversation.getLastSenderId());
+            chatInfo.put("timestamp", conversation.getLastMessageAt());
+            chatInfo.put("unreadCount", unread);
+            chatInfo.put("isRead", unread == 0);
+            chats.add(chatInfo);
+        }
+        return new CursorPage<>(chats, nextCursor);
+    }
+
+    /**
+     * Creates summaries for conversations that have messages but none yet,
+     * from their latest message and with nothing unread. Existing summaries
+     * are left as they are. Runs when forced or while there are no summaries.
+     */
+    public void backfill(boolean force) {
+        if (!force && mongoTemplate.exists(new Query(), ConversationSummary.class)) {
+            return;
+        }
+        Aggregation latest = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("conversationId").ne(null)),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "conversationId").and(Sort.by(Sort.Direction.ASC, "createdAt"))),
+                Aggregation.group("conversationId")
+                        .last("_id").as("lastMessageId")
+                        .last("content").as("lastMessage")
+                        .last("senderId").as("lastSenderId")
+                        .last("recipientId").as("lastRecipientId")
+                        .last("createdAt").as("lastMessageAt"))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        long created = 0;
+        try (Stream<Document> stream = mongoTemplate.aggregateStream(latest, ChatBox.class, Document.class)) {
+            Iterator<Document> results = stream.iterator();
+            BulkOperations bulk = null;
+            int pending = 0;
+            while (results.hasNext()) {
+                Document conversation = results.next();
+                String senderId = conversation.getString("lastSenderId");
+                String recipientId = conversation.getString("lastRecipientId");
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ConversationSummary.class);
+                }
+                bulk.upsert(new Query(Criteria.where("_id").is(conversation.get("_id"))),
+                        new Update().setOnInsert("participantIds", participants(senderId, recipientId))
+                                .setOnInsert("lastMessageId", String.valueOf(conversation.get("lastMessageId")))
+                                .setOnInsert("lastMessage", conversation.get("lastMessage"))
+                                .setOnInsert("lastSenderId", senderId)
+                                .setOnInsert("lastMessageAt", conversation.get("lastMessageAt")));
+                if (++pending == batchSize) {
+                    created += bulk.execute().getUpserts().size();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+            if (bulk != null) {
+                created += bulk.execute().getUpserts().size();
+            }
+        }
+        if (created > 0) {
+            logger.info("Created " + created + " conversation summaries from existing messages");
+        }
+    }
+
+    private static Update lastMessage(ChatBox message) {
+        return new Update().set("lastMessageId", message.getId())
+                .set("lastMessage", message.getContent())
+                .set("lastSenderId", message.getSenderId())
+                .set("lastMessageAt", message.getCreatedAt());
+    }
+
+    private static List<String> participants(ChatBox message) {
+        return participants(message.getSenderId(), message.getRecipientId());
+    }
+
+    // Same order as the conversation id
+    private static List<String> participants(String userId1, String userId2) {
+        List<String> participants = new ArrayList<>();
+        participants.add(userId1.compareTo(userId2) <= 0 ? userId1 : userId2);
+        participants.add(userId1.compareTo(userId2) <= 0 ? userId2 : userId1);
+        return participants;
+    }
+}
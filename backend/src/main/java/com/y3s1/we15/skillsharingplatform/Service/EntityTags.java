@@ -0,0 +1,22 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import java.util.Arrays;
+
+/**
+ * Builds weak ETags for conditional GETs. Weak because the tag tracks the
+ * resource's state, not the exact bytes of its JSON rendering.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Weak ETag over the given parts, e.g. an id and its updatedAt. Parts are
+     * combined with their hash codes, so pass values whose hashCode reflects
+     * their content.
+     */
+    public static String weak(Object... parts) {
+        return "W/\"" + Integer.toHexString(Arrays.deepHashCode(parts)) + "\"";
+    }
+}
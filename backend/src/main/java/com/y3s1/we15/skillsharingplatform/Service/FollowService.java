@@ -0,0 +1,349 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.MongoException;
+import com.y3s1.we15.skillsharingplatform.Models.FollowEdge;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Who follows whom, one {@link FollowEdge} per relationship. Each user keeps
+ * followerCount and followingCount, moved with $inc whenever an edge is added
+ * or removed, so profile totals never count edges. A scheduled pass recounts
+ * users in batches and repairs any totals that drifted.
+ *
+ * Follow lists are paged by the other user's id, which the
+ * (followerId, followeeId) and (followeeId, followerId) indexes cover.
+ *
+ * Follows are idempotent and safe under concurrency: the unique edge index
+ * lets exactly one of several racing follows insert, and only the caller
+ * whose insert or delete took effect moves the counters. With
+ * mongodb.transactions.enabled the edge write and both counter updates
+ * commit together; otherwise a crash between them leaves drift for the
+ * reconciliation pass.
+ */
+@Service
+public class FollowService {
+    private static final Logger logger = LoggerFactory.getLogger(FollowService.class);
+
+    // Attempts per follow or unfollow when its transaction hits a write conflict
+    private static final int MAX_TRANSACTION_ATTEMPTS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final TransactionTemplate transactions; // null unless transactions are enabled
+
+    @Value("${follows.batch-size:500}")
+    private int batchSize;
+
+    public FollowService(MongoTemplate mongoTemplate) {
+        this(mongoTemplate, null);
+    }
+
+    @Autowired
+    public FollowService(MongoTemplate mongoTemplate, @Nullable MongoTransactionManager transactionManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.transactions = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+    }
+
+    /**
+     * @return false if the follower already follows the followee
+     */
+    public boolean follow(String followerId, String followeeId) {
+        try {
+            return atomically(() -> {
+                mongoTemplate.insert(new FollowEdge(followerId, followeeId));
+                adjustCounts(followerId, followeeId, 1);
+                return true;
+            });
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return false if there was no such follow
+     */
+    public boolean unfollow(String followerId, String followeeId) {
+        return atomically(() -> {
+            long removed = mongoTemplate.remove(edge(followerId, followeeId), FollowEdge.class).getDeletedCount();
+            if (removed == 0) {
+                return false;
+            }
+            adjustCounts(followerId, followeeId, -1);
+            return true;
+        });
+    }
+
+    public boolean isFollowing(String followerId, String followeeId) {
+        return mongoTemplate.exists(edge(followerId, followeeId), FollowEdge.class);
+    }
+
+    /**
+     * The subset of candidateIds that the user follows, in one indexed query.
+     */
+    public List<String> filterFollowed(String followerId, Collection<String> candidateIds) {
+        Query query = new Query(Criteria.where("followerId").is(followerId).and("followeeId").in(candidateIds));
+        query.fields().include("followeeId").exclude("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(FollowEdge.class)).stream()
+                .map(document -> document.getString("followeeId"))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Up to limit ids of the user's followers, in id order, starting after
+     * afterId (or from the first when null).
+     */
+    public List<String> getFollowerIds(String userId, String afterId, int limit) {
+        return page("followeeId", userId, "followerId", afterId, limit);
+    }
+
+    /**
+     * Up to limit ids of the users this user follows, in id order, starting
+     * after afterId (or from the first when null).
+     */
+    public List<String> getFollowingIds(String userId, String afterId, int limit) {
+        return page("followerId", userId, "followeeId", afterId, limit);
+    }
+
+    /**
+     * Drops every follow to or from the user and takes them off the
+     * counterparts' totals. Call when the user is deleted.
+     */
+    public void removeUser(String userId) {
+        removeEdges("followerId", userId, "followeeId", "followerCount");
+        removeEdges("followeeId", userId, "followerId", "followingCount");
+    }
+
+    /**
+     * Moves the follower and following lists that used to be embedded in
+     * user documents into the follows collection, a batch of users at a time,
+     * then recounts every user's totals. Lists are unset once their edges are
+     * written, so a rerun only picks up users that still have them. Both
+     * sides of the old lists are imported, since concurrent saves could leave
+     * them disagreeing.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateFollowArrays() {
+        long users = 0;
+        long edges = 0;
+        try {
+            while (true) {
+                Query pending = new Query(new Criteria().orOperator(
+                        Criteria.where("followers").exists(true),
+                        Criteria.where("following").exists(true))).limit(batchSize);
+                pending.fields().include("followers").include("following");
+                List<UserModel> batch = mongoTemplate.find(pending, UserModel.class);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FollowEdge.class);
+                int writes = 0;
+                LocalDateTime now = LocalDateTime.now();
+                for (UserModel user : batch) {
+                    if (user.getFollowing() != null) {
+                        for (String followeeId : user.getFollowing()) {
+                            writes += upsertEdge(bulk, user.getId(), followeeId, now);
+                        }
+                    }
+                    if (user.getFollowers() != null) {
+                        for (String followerId : user.getFollowers()) {
+                            writes += upsertEdge(bulk, followerId, user.getId(), now);
+                        }
+                    }
+                }
+                if (writes > 0) {
+                    edges += bulk.execute().getUpserts().size();
+                }
+
+                List<String> ids = batch.stream().map(UserModel::getId).collect(Collectors.toList());
+                mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids)),
+                        new Update().unset("followers").unset("following"), UserModel.class);
+                // Counters start at zero so reconcileCounts can compare against them
+                for (String counter : new String[] {"followerCount", "followingCount"}) {
+                    mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids).and(counter).exists(false)),
+                            new Update().set(counter, 0L), UserModel.class);
+                }
+                users += batch.size();
+            }
+            if (users > 0) {
+                logger.info("Moved follow lists of " + users + " users into " + edges + " follow edges");
+                reconcileCounts();
+            }
+        } catch (Exception e) {
+            logger.error("Follow list migration failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Walks every user in _id order, recounts their edges and rewrites the
+     * totals that disagree. A rewrite only applies if the stored values are
+     * still the ones that were compared, so a follow that lands mid-pass is
+     * kept and any remaining difference is picked up by the next pass.
+     */
+    @Scheduled(fixedDelayString = "${follows.count.reconcile-interval-ms:3600000}",
+            initialDelayString = "${follows.count.reconcile-interval-ms:3600000}")
+    public void reconcileCounts() {
+        long checked = 0;
+        long repaired = 0;
+        String lastId = null;
+        try {
+            while (true) {
+                Query batchQuery = new Query();
+                if (lastId != null) {
+                    batchQuery.addCriteria(Criteria.where("_id").gt(ObjectId.isValid(lastId) ? new ObjectId(lastId) : lastId));
+                }
+                batchQuery.with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+                batchQuery.fields().include("followerCount").include("followingCount");
+                List<UserModel> users = mongoTemplate.find(batchQuery, UserModel.class);
+                if (users.isEmpty()) {
+                    break;
+                }
+                lastId = users.get(users.size() - 1).getId();
+                checked += users.size();
+
+                List<String> userIds = users.stream().map(UserModel::getId).collect(Collectors.toList());
+                Map<String, Long> followers = countEdges("followeeId", userIds);
+                Map<String, Long> following = countEdges("followerId", userIds);
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserModel.class);
+                boolean drifted = false;
+                for (UserModel user : users) {
+                    long actualFollowers = followers.getOrDefault(user.getId(), 0L);
+                    long actualFollowing = following.getOrDefault(user.getId(), 0L);
+                    if (user.getFollowerCount() != actualFollowers || user.getFollowingCount() != actualFollowing) {
+                        bulk.updateOne(new Query(Criteria.where("_id").is(user.getId())
+                                        .andOperator(storedCount("followerCount", user.getFollowerCount()),
+                                                storedCount("followingCount", user.getFollowingCount()))),
+                                new Update().set("followerCount", actualFollowers).set("followingCount", actualFollowing));
+                        drifted = true;
+                    }
+                }
+                if (drifted) {
+                    repaired += bulk.execute().getModifiedCount();
+                }
+            }
+            if (repaired > 0) {
+                logger.warn("Repaired follow counts on " + repaired + " of " + checked + " users");
+            }
+        } catch (Exception e) {
+            logger.error("Follow count reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    // Runs the writes in one transaction when enabled, retrying ones aborted by a write conflict
+    private boolean atomically(Supplier<Boolean> writes) {
+        if (transactions == null) {
+            return writes.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return Boolean.TRUE.equals(transactions.execute(status -> writes.get()));
+            } catch (DataAccessException e) {
+                if (attempt >= MAX_TRANSACTION_ATTEMPTS || !isTransient(e)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isTransient(DataAccessException e) {
+        if (e instanceof TransientDataAccessException) {
+            return true;
+        }
+        return e.getCause() instanceof MongoException
+                && ((MongoException) e.getCause()).hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+    }
+
+    private Query edge(String followerId, String followeeId) {
+        return new Query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId));
+    }
+
+    // Counters are never written on insert, so a zero read back may be a missing field
+    private static Criteria storedCount(String field, long value) {
+        return value == 0 ? Criteria.where(field).in(0L, null) : Criteria.where(field).is(value);
+    }
+
+    private void adjustCounts(String followerId, String followeeId, int delta) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(followerId)),
+                new Update().inc("followingCount", delta), UserModel.class);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(followeeId)),
+                new Update().inc("followerCount", delta), UserModel.class);
+    }
+
+    // Covered by the index on (keyField, otherField): no edge document is fetched
+    private List<String> page(String keyField, String userId, String otherField, String afterId, int limit) {
+        Criteria criteria = Criteria.where(keyField).is(userId);
+        if (afterId != null) {
+            criteria = criteria.and(otherField).gt(afterId);
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, otherField)).limit(limit);
+        query.fields().include(otherField).exclude("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(FollowEdge.class)).stream()
+                .map(document -> document.getString(otherField))
+                .collect(Collectors.toList());
+    }
+
+    // Removes the user's edges on one side a batch at a time, decrementing each counterpart's counter
+    private void removeEdges(String keyField, String userId, String otherField, String counterField) {
+        while (true) {
+            List<String> others = page(keyField, userId, otherField, null, batchSize);
+            if (others.isEmpty()) {
+                return;
+            }
+            mongoTemplate.remove(new Query(Criteria.where(keyField).is(userId).and(otherField).in(others)),
+                    FollowEdge.class);
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(others)),
+                    new Update().inc(counterField, -1), UserModel.class);
+        }
+    }
+
+    private int upsertEdge(BulkOperations bulk, String followerId, String followeeId, LocalDateTime createdAt) {
+        if (followerId == null || followeeId == null || followerId.equals(followeeId)) {
+            return 0;
+        }
+        bulk.upsert(edge(followerId, followeeId), new Update().setOnInsert("createdAt", createdAt));
+        return 1;
+    }
+
+    private Map<String, Long> countEdges(String field, List<String> userIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(field).in(userIds)),
+                Aggregation.group(field).count().as("count"));
+        Map<String, Long> counts = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, FollowEdge.class, Document.class)) {
+            counts.put(result.get("_id").toString(), ((Number) result.get("count")).longValue());
+        }
+        return counts;
+    }
+}
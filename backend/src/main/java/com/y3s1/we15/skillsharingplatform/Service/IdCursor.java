@@ -0,0 +1,33 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by a single unique string key, such as the
+ * user ids in a follow list. Encoded the same opaque way as
+ * {@link KeysetCursor}.
+ */
+public final class IdCursor {
+
+    private static final String PREFIX = "i:";
+
+    private IdCursor() {
+    }
+
+    public static String encode(String id) {
+        String raw = PREFIX + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode(String)}
+     */
+    public static String decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        if (!raw.startsWith(PREFIX) || raw.length() == PREFIX.length()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return raw.substring(PREFIX.length());
+    }
+}
@@ -0,0 +1,111 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by (createdAt, _id), or by another
+ * timestamp and tie-breaker pair. Encoded as an opaque
+ * URL-safe token so clients never depend on its structure.
+ *
+ * Documents without a timestamp sort as MongoDB orders them, below every
+ * date: last in descending listings, first in ascending ones.
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+    // Stands in for a missing timestamp; never produced by LocalDateTime.toString()
+    private static final String NO_TIME = "-";
+
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    public KeysetCursor(LocalDateTime createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : NO_TIME) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split <= 0 || split == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String time = raw.substring(0, split);
+            return new KeysetCursor(NO_TIME.equals(time) ? null : LocalDateTime.parse(time), raw.substring(split + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Criteria selecting the documents that come strictly after this cursor
+     * when sorted by createdAt and _id in the given direction.
+     */
+    public Criteria after(boolean descending) {
+        Object idValue = ObjectId.isValid(id) ? new ObjectId(id) : id;
+        return after(descending, "_id", idValue);
+    }
+
+    /**
+     * Same as {@link #after(boolean)} for listings whose tie-breaker is a
+     * plain string field rather than _id.
+     */
+    public Criteria after(boolean descending, String idField) {
+        return after(descending, "createdAt", idField, id);
+    }
+
+    /**
+     * Same as {@link #after(boolean, String)} for listings ordered by a
+     * timestamp other than createdAt.
+     */
+    public Criteria after(boolean descending, String timeField, String idField) {
+        return after(descending, timeField, idField, id);
+    }
+
+    private Criteria after(boolean descending, String idField, Object idValue) {
+        return after(descending, "createdAt", idField, idValue);
+    }
+
+    private Criteria after(boolean descending, String timeField, String idField, Object idValue) {
+        // Range operators never match a missing field, so the untimed tail is selected explicitly
+        if (createdAt == null) {
+            Criteria untimed = Criteria.where(timeField).is(null).and(idField);
+            if (descending) {
+                return untimed.lt(idValue);
+            }
+            return new Criteria().orOperator(untimed.gt(idValue), Criteria.where(timeField).ne(null));
+        }
+        if (descending) {
+            return new Criteria().orOperator(
+                    Criteria.where(timeField).lt(createdAt),
+                    Criteria.where(timeField).is(createdAt).and(idField).lt(idValue),
+                    Criteria.where(timeField).is(null));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(timeField).gt(createdAt),
+                Criteria.where(timeField).is(createdAt).and(idField).gt(idValue));
+    }
+}
@@ -0,0 +1,57 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free query latency counters for the in-memory search indexes: totals
+ * since startup plus a ring of recent samples for percentiles.
+ */
+class LatencyRecorder {
+    private static final int SAMPLES = 1024;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray recentNanos = new AtomicLongArray(SAMPLES);
+    private final AtomicInteger recentCursor = new AtomicInteger();
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        recentNanos.set(Math.floorMod(recentCursor.getAndIncrement(), SAMPLES), nanos);
+    }
+
+    /**
+     * Adds query count, average, max and recent percentiles, in milliseconds, to stats.
+     */
+    void describe(Map<String, Object> stats) {
+        long queries = count.sum();
+        stats.put("queries", queries);
+        stats.put("avgLatencyMs", queries > 0 ? totalNanos.sum() / queries / 1_000_000.0 : 0.0);
+        stats.put("maxLatencyMs", maxNanos.get() / 1_000_000.0);
+
+        int samples = (int) Math.min(queries, SAMPLES);
+        long[] recent = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            recent[i] = recentNanos.get(i);
+        }
+        Arrays.sort(recent);
+        stats.put("p50LatencyMs", percentile(recent, 0.50));
+        stats.put("p95LatencyMs", percentile(recent, 0.95));
+        stats.put("p99LatencyMs", percentile(recent, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,213 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Models.Progress;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for like counters. Like membership is still written
+ * straight to the document; only the denormalized likeCount is batched here
+ * and flushed on an interval as one bulk of $inc updates per collection, so a
+ * burst of likes on a popular post costs one counter write instead of one per
+ * click. Counts are therefore eventually consistent with membership.
+ *
+ * Deltas live in striped buffers: each stripe is a map of LongAdders guarded by
+ * its own read/write lock. Writers share the read lock, so concurrent likes on
+ * the same post only contend inside the LongAdder; the flusher takes the write
+ * lock just long enough to swap the stripe's map for an empty one.
+ */
+@Service
+public class LikeCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(LikeCounterService.class);
+
+    static final String COUNT_FIELD = "likeCount";
+    private static final int STRIPES = 16;
+
+    private final MongoTemplate mongoTemplate;
+    private final PostCache postCache;
+    private final CollectionVersions collectionVersions;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    @Value("${likes.counter.max-pending:10000}")
+    private int maxPending;
+
+    public LikeCounterService(MongoTemplate mongoTemplate, PostCache postCache,
+                              CollectionVersions collectionVersions) {
+        this.mongoTemplate = mongoTemplate;
+        this.postCache = postCache;
+        this.collectionVersions = collectionVersions;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Buffers a like count change for the given document. When a stripe holds
+     * more distinct documents than its share of likes.counter.max-pending, the
+     * calling thread flushes that stripe itself so memory stays bounded.
+     */
+    public void increment(Class<?> entityClass, String id, long delta) {
+        Key key = new Key(entityClass, id);
+        Stripe stripe = stripeFor(key);
+        if (buffer(stripe, key, delta) > Math.max(1, maxPending / STRIPES)) {
+            flushStripe(stripe);
+        }
+    }
+
+    /**
+     * Change not yet written to the document, to be added to its stored count.
+     */
+    public long pendingDelta(Class<?> entityClass, String id) {
+        Key key = new Key(entityClass, id);
+        LongAdder adder = stripeFor(key).pending.get(key);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.counter.flush-interval-ms:1000}")
+    public void flush() {
+        for (Stripe stripe : stripes) {
+            flushStripe(stripe);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Documents created before likeCount was stored on progress updates get
+     * it derived from their likes array, in one server-side update.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillProgressLikeCounts() {
+        try {
+            AggregationUpdate update = AggregationUpdate.from(Collections.singletonList(context ->
+                    new Document("$set", new Document(COUNT_FIELD, new Document("$size",
+                            new Document("$ifNull", Arrays.asList("$likes", Collections.emptyList())))))));
+            long updated = mongoTemplate.updateMulti(
+                    new Query(Criteria.where(COUNT_FIELD).exists(false)), update, Progress.class).getModifiedCount();
+            if (updated > 0) {
+                logger.info("Backfilled likeCount on " + updated + " progress updates");
+            }
+        } catch (Exception e) {
+            logger.error("Progress likeCount backfill failed: " + e.getMessage());
+        }
+    }
+
+    private void flushStripe(Stripe stripe) {
+        Map<Key, LongAdder> drained;
+        stripe.lock.writeLock().lock();
+        try {
+            if (stripe.pending.isEmpty()) {
+                return;
+            }
+            drained = stripe.pending;
+            stripe.pending = new ConcurrentHashMap<>();
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+
+        Map<Class<?>, Map<String, Long>> byCollection = new HashMap<>();
+        drained.forEach((key, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                byCollection.computeIfAbsent(key.entityClass, c -> new HashMap<>()).put(key.id, delta);
+            }
+        });
+
+        byCollection.forEach((entityClass, deltas) -> {
+            try {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass);
+                deltas.forEach((id, delta) -> bulk.updateOne(
+                        new Query(Criteria.where("_id").is(ObjectId.isValid(id) ? new ObjectId(id) : id)),
+                        // Keep the stored counter an int32 like the field it updates
+                        new Update().inc(COUNT_FIELD, Math.toIntExact(delta))));
+                bulk.execute();
+                if (entityClass == Post.class) {
+                    postCache.invalidateAll(deltas.keySet());
+                    collectionVersions.bump(CollectionVersions.POSTS);
+                } else if (entityClass == Progress.class) {
+                    collectionVersions.bump(CollectionVersions.PROGRESS);
+                }
+            } catch (Exception e) {
+                // Put the deltas back so the next flush retries them
+                logger.error("Failed to flush like counters for " + entityClass.getSimpleName() + ": " + e.getMessage());
+                deltas.forEach((id, delta) -> {
+                    Key key = new Key(entityClass, id);
+                    buffer(stripeFor(key), key, delta);
+                });
+            }
+        });
+    }
+
+    private int buffer(Stripe stripe, Key key, long delta) {
+        stripe.lock.readLock().lock();
+        try {
+            stripe.pending.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            return stripe.pending.size();
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    private Stripe stripeFor(Key key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private volatile ConcurrentHashMap<Key, LongAdder> pending = new ConcurrentHashMap<>();
+    }
+
+    private static final class Key {
+        private final Class<?> entityClass;
+        private final String id;
+
+        private Key(Class<?> entityClass, String id) {
+            this.entityClass = entityClass;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return entityClass.equals(other.entityClass) && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityClass, id);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a ranked result list, for orderings such as search relevance
+ * that have no stable key to continue from. Encoded the same opaque way as
+ * {@link KeysetCursor}.
+ */
+public final class OffsetCursor {
+
+    private static final String PREFIX = "o:";
+
+    private OffsetCursor() {
+    }
+
+    public static String encode(int offset) {
+        String raw = PREFIX + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode(int)}
+     */
+    public static int decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        if (!raw.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            int offset = Integer.parseInt(raw.substring(PREFIX.length()));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Repositories.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of single-post reads. Posts are bounded by an
+ * estimate of their in-memory size rather than by count, since one post with
+ * a long description and thousands of likes outweighs hundreds of short ones.
+ * Ownership checks get their own compact postId -> ownerId cache so they never
+ * need the full document.
+ *
+ * Every write path that changes a post must call {@link #invalidate(String)}.
+ */
+@Service
+public class PostCache {
+
+    // Rough per-object overhead of a Post and its collections, in bytes
+    private static final int BASE_WEIGHT = 256;
+
+    private final PostRepository postRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, Post> posts;
+    private final Cache<String, String> owners;
+
+    public PostCache(PostRepository postRepository, MongoTemplate mongoTemplate,
+                     @Value("${posts.cache.max-weight-bytes:33554432}") long maxWeightBytes,
+                     @Value("${posts.cache.max-owner-entries:100000}") long maxOwnerEntries) {
+        this.postRepository = postRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.posts = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher((String id, Post post) -> weigh(post))
+                .recordStats()
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maxOwnerEntries)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Post> getPost(String postId) {
+        return Optional.ofNullable(posts.get(postId, id -> postRepository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Id of the post's author, or null if the post does not exist. Served from
+     * a cached post when there is one, otherwise from a projection of author.id.
+     */
+    public String getOwnerId(String postId) {
+        return owners.get(postId, id -> {
+            Post cached = posts.getIfPresent(id);
+            if (cached == null) {
+                Query query = new Query(Criteria.where("_id").is(id));
+                query.fields().include("user.id");
+                cached = mongoTemplate.findOne(query, Post.class);
+            }
+            return cached != null && cached.getUser() != null ? cached.getUser().getId() : null;
+        });
+    }
+
+    public void invalidate(String postId) {
+        posts.invalidate(postId);
+        owners.invalidate(postId);
+    }
+
+    public void invalidateAll(Collection<String> postIds) {
+        posts.invalidateAll(postIds);
+        owners.invalidateAll(postIds);
+    }
+
+    public void invalidateAll() {
+        posts.invalidateAll();
+        owners.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Object> postStats = describe(posts.stats(), posts.estimatedSize());
+        posts.policy().eviction().ifPresent(eviction -> {
+            eviction.weightedSize().ifPresent(weight -> postStats.put("weightedSizeBytes", weight));
+            postStats.put("maxWeightBytes", eviction.getMaximum());
+        });
+        stats.put("posts", postStats);
+        stats.put("owners", describe(owners.stats(), owners.estimatedSize()));
+        return stats;
+    }
+
+    private static Map<String, Object> describe(CacheStats cacheStats, long size) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("hits", cacheStats.hitCount());
+        stats.put("misses", cacheStats.missCount());
+        stats.put("hitRate", cacheStats.hitRate());
+        stats.put("evictions", cacheStats.evictionCount());
+        stats.put("evictionWeight", cacheStats.evictionWeight());
+        stats.put("averageLoadMs", cacheStats.averageLoadPenalty() / 1_000_000.0);
+        return stats;
+    }
+
+    // Strings are counted at two bytes per char; ids at a fixed 64 bytes each
+    private static int weigh(Post post) {
+        long weight = BASE_WEIGHT;
+        weight += 2L * length(post.getTitle());
+        weight += 2L * length(post.getDescription());
+        weight += 2L * length(post.getCategory());
+        if (post.getMediaUrls() != null) {
+            for (String url : post.getMediaUrls()) {
+                weight += 2L * length(url) + 16;
+            }
+        }
+        if (post.getLikedUserIds() != null) {
+            weight += 64L * post.getLikedUserIds().size();
+        }
+        if (post.getUser() != null) {
+            weight += 2L * (length(post.getUser().getUsername()) + length(post.getUser().getFirstName())
+                    + length(post.getUser().getLastName()) + length(post.getUser().getProfilePicture())) + 64;
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
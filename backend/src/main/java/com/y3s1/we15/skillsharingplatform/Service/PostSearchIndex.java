@@ -0,0 +1,317 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over post title, description and category, ranked
+ * with BM25. Title and category terms count extra so a match there outranks
+ * one buried in the description.
+ *
+ * The index is rebuilt from Mongo at startup and kept current by PostService
+ * and AdminServiceImpl on every create, update and delete. It only sees writes
+ * made through this instance.
+ */
+@Service
+public class PostSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final MongoTemplate mongoTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (postId -> weighted term frequency)
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private final Map<String, IndexedPost> documents = new HashMap<>();
+    private long totalLength;
+
+    // Posts deleted while a rebuild is streaming, so the rebuild does not resurrect them
+    private final Set<String> removedDuringRebuild = new HashSet<>();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    private final LatencyRecorder latency = new LatencyRecorder();
+
+    public PostSearchIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adds the post to the index, replacing whatever was indexed for it before.
+     */
+    public void index(Post post) {
+        if (post == null || post.getId() == null) {
+            return;
+        }
+        IndexedPost entry = analyze(post);
+        lock.writeLock().lock();
+        try {
+            removeLocked(post.getId());
+            addLocked(post.getId(), entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            if (rebuilding) {
+                removedDuringRebuild.add(postId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                removedDuringRebuild.addAll(documents.keySet());
+            }
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the posts matching any term of the query and returns one page of
+     * ids, best match first. Ties go to the newer post.
+     */
+    public SearchHits search(String queryText, int offset, int limit) {
+        long started = System.nanoTime();
+        try {
+            Set<String> terms = new LinkedHashSet<>(tokenize(queryText));
+            if (terms.isEmpty()) {
+                return new SearchHits(Collections.emptyList(), 0);
+            }
+
+            Map<String, Double> scores = new HashMap<>();
+            List<String> ranked;
+            lock.readLock().lock();
+            try {
+                int docCount = documents.size();
+                if (docCount == 0) {
+                    return new SearchHits(Collections.emptyList(), 0);
+                }
+                double avgLength = (double) totalLength / docCount;
+                for (String term : terms) {
+                    Map<String, Integer> postingList = postings.get(term);
+                    if (postingList == null) {
+                        continue;
+                    }
+                    int df = postingList.size();
+                    double idf = Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+                    for (Map.Entry<String, Integer> posting : postingList.entrySet()) {
+                        int tf = posting.getValue();
+                        int length = documents.get(posting.getKey()).length;
+                        double norm = tf + K1 * (1 - B + B * length / avgLength);
+                        scores.merge(posting.getKey(), idf * tf * (K1 + 1) / norm, Double::sum);
+                    }
+                }
+                ranked = new ArrayList<>(scores.keySet());
+                Comparator<String> byCreatedAt = Comparator.comparing(
+                        id -> documents.get(id).createdAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+                ranked.sort(Comparator.<String>comparingDouble(scores::get).reversed()
+                        .thenComparing(byCreatedAt.reversed())
+                        .thenComparing(Comparator.<String>reverseOrder()));
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            int from = Math.min(offset, ranked.size());
+            int to = Math.min(from + limit, ranked.size());
+            return new SearchHits(new ArrayList<>(ranked.subList(from, to)), ranked.size());
+        } finally {
+            latency.record(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Streams every post from Mongo into the index. Writes that land while the
+     * rebuild runs win over the streamed copy.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            ready = false;
+            removedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int indexed = 0;
+        Query query = new Query();
+        query.fields().include("title").include("description").include("category").include("createdAt");
+        try (Stream<Post> stream = mongoTemplate.stream(query, Post.class)) {
+            Iterator<Post> posts = stream.iterator();
+            while (posts.hasNext()) {
+                Post post = posts.next();
+                IndexedPost entry = analyze(post);
+                lock.writeLock().lock();
+                try {
+                    if (!documents.containsKey(post.getId()) && !removedDuringRebuild.contains(post.getId())) {
+                        addLocked(post.getId(), entry);
+                        indexed++;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            ready = true;
+            logger.info("Indexed " + indexed + " posts for search in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            logger.error("Post search index rebuild failed: " + e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                removedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Index size and query latency since startup. Percentiles are taken over
+     * the most recent queries only.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("ready", ready);
+            stats.put("documents", documents.size());
+            stats.put("terms", postings.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        latency.describe(stats);
+        return stats;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private IndexedPost analyze(Post post) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        length += addTerms(frequencies, post.getTitle(), TITLE_WEIGHT);
+        length += addTerms(frequencies, post.getCategory(), CATEGORY_WEIGHT);
+        length += addTerms(frequencies, post.getDescription(), DESCRIPTION_WEIGHT);
+        return new IndexedPost(frequencies, length, post.getCreatedAt());
+    }
+
+    private int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private void addLocked(String postId, IndexedPost entry) {
+        documents.put(postId, entry);
+        totalLength += entry.length;
+        entry.frequencies.forEach((term, tf) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(postId, tf));
+    }
+
+    private void removeLocked(String postId) {
+        IndexedPost previous = documents.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length;
+        for (String term : previous.frequencies.keySet()) {
+            Map<String, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(postId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static final class IndexedPost {
+        private final Map<String, Integer> frequencies;
+        private final int length;
+        private final LocalDateTime createdAt;
+
+        private IndexedPost(Map<String, Integer> frequencies, int length, LocalDateTime createdAt) {
+            this.frequencies = frequencies;
+            this.length = length;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * One page of matching post ids in rank order, plus the total match count.
+     */
+    public static final class SearchHits {
+        private final List<String> postIds;
+        private final int total;
+
+        public SearchHits(List<String> postIds, int total) {
+            this.postIds = postIds;
+            this.total = total;
+        }
+
+        public List<String> getPostIds() {
+            return postIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
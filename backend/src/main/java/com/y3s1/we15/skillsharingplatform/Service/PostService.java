@@ -1,24 +1,62 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
+import com.y3s1.we15.skillsharingplatform.Models.LikeToggleResult;
 import com.y3s1.we15.skillsharingplatform.Models.Post;
-import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.PostListItem;
 import com.y3s1.we15.skillsharingplatform.Repositories.PostRepository;
-import com.y3s1.we15.skillsharingplatform.Repositories.UserRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class PostService {
 
     private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final LikeCounterService likeCounterService;
+    private final PostSearchIndex postSearchIndex;
+    private final TimelineService timelineService;
+    private final PostCache postCache;
+    private final CollectionVersions collectionVersions;
+    private final CascadeDeleteService cascadeDeleteService;
 
-    public PostService(PostRepository postRepository, UserRepository userRepository) {
+    @Value("${posts.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${posts.page.max-size:100}")
+    private int maxPageSize;
+
+    public PostService(PostRepository postRepository, MongoTemplate mongoTemplate,
+                       LikeCounterService likeCounterService, PostSearchIndex postSearchIndex,
+                       TimelineService timelineService, PostCache postCache,
+                       CollectionVersions collectionVersions, CascadeDeleteService cascadeDeleteService) {
         this.postRepository = postRepository;
-        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.likeCounterService = likeCounterService;
+        this.postSearchIndex = postSearchIndex;
+        this.timelineService = timelineService;
+        this.postCache = postCache;
+        this.collectionVersions = collectionVersions;
+        this.cascadeDeleteService = cascadeDeleteService;
     }
 
     public Post createPost(Post post) {
@@ -26,37 +64,145 @@ public class PostService {
             post.setCreatedAt(LocalDateTime.now());
         }
         post.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        collectionVersions.bump(CollectionVersions.POSTS);
+        postSearchIndex.index(saved);
+        timelineService.fanOut(saved);
+        return saved;
     }
 
-    public List<Post> getAllPosts() {
-        return postRepository.findAll();
+    /**
+     * Newest-first page of posts, continuing after {@code cursor} when given.
+     * {@code viewerId} may be null for anonymous requests.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<PostListItem> getPostsPage(String viewerId, String cursor, Integer limit) {
+        return findPage(null, viewerId, cursor, limit);
     }
 
-    public Optional<Post> getPostById(String id) {
-        return postRepository.findById(id);
+    public CursorPage<PostListItem> getPostsByCategoryPage(String category, String viewerId, String cursor, Integer limit) {
+        return findPage(Criteria.where("category").is(category), viewerId, cursor, limit);
     }
 
-    public Post updatePost(Post post) {
-        post.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+    /**
+     * Relevance-ranked page of posts matching the query in title, description
+     * or category. The cursor is an opaque offset into the ranking.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<PostListItem> searchPostsPage(String queryText, String viewerId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        int offset = cursor != null && !cursor.isEmpty() ? OffsetCursor.decode(cursor) : 0;
+        PostSearchIndex.SearchHits hits = postSearchIndex.search(queryText, offset, pageSize);
+        if (hits.getPostIds().isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+
+        List<PostListItem> items = getListItems(hits.getPostIds(), viewerId);
+        int next = offset + pageSize;
+        return new CursorPage<>(items, next < hits.getTotal() ? OffsetCursor.encode(next) : null);
+    }
+
+    /**
+     * List items for the given posts, in the order of {@code postIds}. Posts
+     * that no longer exist are left out.
+     */
+    public List<PostListItem> getListItems(List<String> postIds, String viewerId) {
+        if (postIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Object> ids = new ArrayList<>();
+        for (String id : postIds) {
+            ids.add(toObjectId(id));
+        }
+        Query query = new BasicQuery(new Query(Criteria.where("_id").in(ids)).getQueryObject(), listFields(viewerId));
+        Map<String, Post> found = new HashMap<>();
+        for (Post post : mongoTemplate.find(query, Post.class)) {
+            found.put(post.getId(), post);
+        }
+
+        List<PostListItem> items = new ArrayList<>();
+        for (String id : postIds) {
+            Post post = found.get(id);
+            if (post != null) {
+                items.add(toListItem(post));
+            }
+        }
+        return items;
+    }
+
+    public CursorPage<PostListItem> getPostsByUserIdPage(String userId, String viewerId, String cursor, Integer limit) {
+        return findPage(Criteria.where("user.id").is(userId), viewerId, cursor, limit);
     }
 
-    public List<Post> getPostsByCategory(String category) {
-        return postRepository.findByCategory(category);
+    public Optional<Post> getPostById(String id) {
+        return postCache.getPost(id);
     }
 
-    public List<Post> searchPosts(String title) {
-        return postRepository.findByTitleContainingIgnoreCase(title);
+    /**
+     * The post as readers see it: likes still buffered in
+     * {@link LikeCounterService} are added to likeCount. The cached instance
+     * is shared, so a copy is returned when there is a pending delta.
+     */
+    public Optional<Post> getPostWithPendingLikes(String id) {
+        return postCache.getPost(id).map(post -> {
+            long pending = likeCounterService.pendingDelta(Post.class, id);
+            if (pending == 0) {
+                return post;
+            }
+            Post copy = new Post();
+            copy.setId(post.getId());
+            copy.setTitle(post.getTitle());
+            copy.setDescription(post.getDescription());
+            copy.setCategory(post.getCategory());
+            copy.setMediaUrls(post.getMediaUrls());
+            copy.setUser(post.getUser());
+            copy.setCreatedAt(post.getCreatedAt());
+            copy.setUpdatedAt(post.getUpdatedAt());
+            copy.setLikedUserIds(post.getLikedUserIds());
+            copy.setLikeCount((int) Math.max(0, post.getLikeCount() + pending));
+            copy.setCommentCount(post.getCommentCount());
+            return copy;
+        });
     }
 
-    public List<Post> getPostsByUserId(String userId) {
-        Optional<UserModel> user = userRepository.findById(userId);
-        return user.map(postRepository::findByUser).orElse(List.of());
+    /**
+     * Applies the editable fields of {@code changes} to the stored post in a
+     * single $set. The instance callers read, which may be the one shared by
+     * {@link PostCache}, is never modified, and fields maintained elsewhere
+     * (likes, comment count, author snapshot) are left as they are.
+     *
+     * @return the updated post, or null if it no longer exists
+     */
+    public Post updatePost(String id, Post changes) {
+        try {
+            Post saved = mongoTemplate.findAndModify(
+                    new Query(Criteria.where("_id").is(id)),
+                    new Update().set("title", changes.getTitle())
+                            .set("description", changes.getDescription())
+                            .set("category", changes.getCategory())
+                            .set("mediaUrls", changes.getMediaUrls())
+                            .set("updatedAt", LocalDateTime.now()),
+                    FindAndModifyOptions.options().returnNew(true),
+                    Post.class);
+            if (saved != null) {
+                postSearchIndex.index(saved);
+            }
+            return saved;
+        } finally {
+            postCache.invalidate(id);
+            collectionVersions.bump(CollectionVersions.POSTS);
+        }
     }
 
     public void deletePost(String id) {
         postRepository.deleteById(id);
+        postCache.invalidate(id);
+        collectionVersions.bump(CollectionVersions.POSTS);
+        postSearchIndex.remove(id);
+        // Comments, likes, notifications and timeline entries are removed in the background
+        cascadeDeleteService.schedule(id);
     }
 
     /**
@@ -67,16 +213,127 @@ public class PostService {
      * @return true if the user is the owner, false otherwise
      */
     public boolean isPostOwner(String postId, String userId) {
-        return postRepository.findById(postId)
-                .map(post -> {
-                    UserModel user = post.getUser();
-                    return user != null && userId.equals(user.getId());
-                })
-                .orElse(false);
+        String ownerId = postCache.getOwnerId(postId);
+        return ownerId != null && ownerId.equals(userId);
+    }
+
+    /**
+     * Likes the post for this user if they have not liked it yet, otherwise
+     * unlikes it. The membership check and the array change happen in one
+     * pipeline update on the post document, so concurrent toggles can never
+     * lose or duplicate a like. likeCount is written behind by
+     * {@link LikeCounterService}; the returned count includes pending changes.
+     *
+     * @return the new like state, or null if the post does not exist
+     */
+    public LikeToggleResult toggleLike(String postId, String userId) {
+        Document likedIds = new Document("$ifNull", Arrays.asList("$likedUserIds", Collections.emptyList()));
+        Document alreadyLiked = new Document("$in", Arrays.asList(userId, likedIds));
+
+        Document toggle = new Document("likedUserIds", new Document("$cond", Arrays.asList(
+                alreadyLiked,
+                new Document("$filter", new Document("input", likedIds)
+                        .append("cond", new Document("$ne", Arrays.asList("$$this", userId)))),
+                new Document("$concatArrays", Arrays.asList(likedIds, Collections.singletonList(userId))))));
+        AggregationUpdate update = AggregationUpdate.from(
+                Collections.singletonList(context -> new Document("$set", toggle)));
+
+        // Project the viewer's own entry only, never the whole likedUserIds array
+        Document fields = new Document("likeCount", 1)
+                .append("title", 1)
+                .append("author", 1)
+                .append("likedUserIds", new Document("$elemMatch", new Document("$eq", userId)));
+        Query query = new BasicQuery(new Document("_id", toObjectId(postId)), fields);
+
+        Post updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        if (updated == null) {
+            return null;
+        }
+        postCache.invalidate(postId);
+        collectionVersions.bump(CollectionVersions.POSTS);
+        boolean liked = updated.getLikedUserIds() != null && !updated.getLikedUserIds().isEmpty();
+        likeCounterService.increment(Post.class, postId, liked ? 1 : -1);
+        int likeCount = (int) Math.max(0, updated.getLikeCount()
+                + likeCounterService.pendingDelta(Post.class, postId));
+        String ownerId = updated.getUser() != null ? updated.getUser().getId() : null;
+        return new LikeToggleResult(liked, likeCount, ownerId, updated.getTitle());
     }
 
     public Post save(Post post) {
         post.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+        try {
+            return postRepository.save(post);
+        } finally {
+            if (post.getId() != null) {
+                postCache.invalidate(post.getId());
+            }
+            collectionVersions.bump(CollectionVersions.POSTS);
+        }
+    }
+
+    /**
+     * Keyset pagination on (createdAt desc, _id desc). Fetches one extra
+     * document to find out whether another page exists.
+     */
+    private CursorPage<PostListItem> findPage(Criteria filter, String viewerId, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        Query criteria = filter != null ? new Query(filter) : new Query();
+        if (cursor != null && !cursor.isEmpty()) {
+            criteria.addCriteria(KeysetCursor.decode(cursor).after(true));
+        }
+        Query query = new BasicQuery(criteria.getQueryObject(), listFields(viewerId));
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")));
+        query.limit(pageSize + 1);
+
+        List<Post> posts = mongoTemplate.find(query, Post.class);
+        boolean hasMore = posts.size() > pageSize;
+        List<Post> page = hasMore ? posts.subList(0, pageSize) : posts;
+
+        List<PostListItem> items = new ArrayList<>(page.size());
+        for (Post post : page) {
+            items.add(toListItem(post));
+        }
+        if (!hasMore) {
+            return new CursorPage<>(items, null);
+        }
+        Post last = page.get(pageSize - 1);
+        return new CursorPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    private PostListItem toListItem(Post post) {
+        // $elemMatch returns at most the viewer's own id, so any entry means liked
+        boolean liked = post.getLikedUserIds() != null && !post.getLikedUserIds().isEmpty();
+        int likeCount = (int) Math.max(0, post.getLikeCount()
+                + likeCounterService.pendingDelta(Post.class, post.getId()));
+        return new PostListItem(post, likeCount, liked);
+    }
+
+    // Everything a list item shows; likedUserIds is narrowed to the viewer's entry or left out
+    private static Document listFields(String viewerId) {
+        Document fields = new Document("title", 1)
+                .append("description", 1)
+                .append("category", 1)
+                .append("mediaUrls", 1)
+                .append("author", 1)
+                .append("createdAt", 1)
+                .append("updatedAt", 1)
+                .append("likeCount", 1)
+                .append("commentCount", 1);
+        if (viewerId != null) {
+            fields.append("likedUserIds", new Document("$elemMatch", new Document("$eq", viewerId)));
+        }
+        return fields;
+    }
+
+    private static Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
     }
 }
\ No newline at end of file
@@ -1,36 +1,142 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Models.Progress;
 import com.y3s1.we15.skillsharingplatform.Models.ProgressComment;
+import com.y3s1.we15.skillsharingplatform.Models.ProgressCommentThread;
 import com.y3s1.we15.skillsharingplatform.Repositories.ProgressCommentRepository;
-import com.y3s1.we15.skillsharingplatform.Repositories.ProgressRepository;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * Progress comments form threads of any depth. Each comment stores its
+ * thread's rootId and the ids of all its ancestors, so a page of threads or a
+ * whole subtree is read with one indexed query instead of a walk down the
+ * reply chain.
+ */
 @Service
 public class ProgressCommentService {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressCommentService.class);
 
     private final ProgressCommentRepository progressCommentRepository;
-    private final ProgressRepository progressRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CollectionVersions collectionVersions;
+
+    @Value("${progress.comments.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${progress.comments.page.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${progress.comments.preview-replies.default:3}")
+    private int defaultPreviewReplies;
+
+    @Value("${progress.comments.preview-replies.max:50}")
+    private int maxPreviewReplies;
+
+    @Value("${progress.comments.backfill.batch-size:500}")
+    private int backfillBatchSize;
 
     @Autowired
-    public ProgressCommentService(ProgressCommentRepository progressCommentRepository, ProgressRepository progressRepository) {
+    public ProgressCommentService(ProgressCommentRepository progressCommentRepository, MongoTemplate mongoTemplate,
+                                  CollectionVersions collectionVersions) {
         this.progressCommentRepository = progressCommentRepository;
-        this.progressRepository = progressRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.collectionVersions = collectionVersions;
+    }
+
+    /**
+     * One page of top-level comments, oldest first. Each carries the first
+     * previewReplies replies of its thread, in creation order, and the total
+     * number of replies. Roots, previews and counts come from one aggregation.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<ProgressCommentThread> getThreadsPage(String progressId, String cursor, Integer limit,
+                                                            Integer previewReplies) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        int preview = previewReplies == null ? defaultPreviewReplies
+                : Math.max(0, Math.min(previewReplies, maxPreviewReplies));
+
+        Criteria roots = Criteria.where("progressId").is(progressId).and("parentCommentId").is(null);
+        if (cursor != null && !cursor.isEmpty()) {
+            roots = new Criteria().andOperator(roots, KeysetCursor.decode(cursor).after(false));
+        }
+        List<AggregationOperation> stages = new ArrayList<>(Arrays.asList(
+                Aggregation.match(roots),
+                Aggregation.sort(Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "_id"))),
+                Aggregation.limit(pageSize + 1),
+                threadLookup("replyCount", Collections.singletonList(new Document("$count", "n")))));
+        if (preview > 0) {
+            stages.add(threadLookup("replies", Arrays.asList(
+                    new Document("$sort", new Document("createdAt", 1).append("_id", 1)),
+                    new Document("$limit", preview))));
+        }
+        Aggregation aggregation = Aggregation.newAggregation(stages);
+
+        List<ProgressCommentThread> threads = new ArrayList<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, ProgressComment.class, Document.class)) {
+            ProgressComment root = mongoTemplate.getConverter().read(ProgressComment.class, result);
+            List<ProgressComment> replies = new ArrayList<>();
+            if (preview > 0) {
+                for (Document reply : result.getList("replies", Document.class)) {
+                    replies.add(mongoTemplate.getConverter().read(ProgressComment.class, reply));
+                }
+            }
+            List<Document> count = result.getList("replyCount", Document.class);
+            long replyCount = count.isEmpty() ? 0 : ((Number) count.get(0).get("n")).longValue();
+            threads.add(new ProgressCommentThread(root, replies, replyCount));
+        }
+
+        boolean hasMore = threads.size() > pageSize;
+        List<ProgressCommentThread> page = hasMore ? threads.subList(0, pageSize) : threads;
+        if (!hasMore) {
+            return new CursorPage<>(page, null);
+        }
+        ProgressComment last = page.get(pageSize - 1).getComment();
+        return new CursorPage<>(page, new KeysetCursor(last.getCreatedAt(), last.getId()).encode());
     }
 
-    public List<ProgressComment> getCommentsByProgressId(String progressId) {
-        List<ProgressComment> allComments = progressCommentRepository.findByProgressId(progressId);
-        
-        // Filter to return only root-level comments (comments with no parent)
-        return allComments.stream()
-            .filter(comment -> comment.getParentCommentId() == null)
-            .collect(Collectors.toList());
+    /**
+     * The comment followed by every reply beneath it at any depth, in
+     * creation order.
+     */
+    public List<ProgressComment> getThread(String commentId) {
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("_id").is(commentId),
+                Criteria.where("ancestorIds").is(commentId)));
+        query.with(Sort.by(Sort.Direction.ASC, "createdAt").and(Sort.by(Sort.Direction.ASC, "_id")));
+        List<ProgressComment> thread = mongoTemplate.find(query, ProgressComment.class);
+        // The comment itself leads even if a reply shares its timestamp
+        thread.sort((a, b) -> commentId.equals(a.getId()) ? -1 : commentId.equals(b.getId()) ? 1 : 0);
+        return thread;
     }
     
     public List<ProgressComment> getRepliesByCommentId(String commentId) {
@@ -38,18 +144,12 @@ public class ProgressCommentService {
     }
 
     public ProgressComment createComment(ProgressComment comment) {
-        ProgressComment savedComment = progressCommentRepository.save(comment);
-        
-        // Update the comment count on the progress
-        Optional<Progress> progressOptional = progressRepository.findById(comment.getProgressId());
-        if (progressOptional.isPresent()) {
-            Progress progress = progressOptional.get();
-            int commentCount = (int) progressCommentRepository.countByProgressId(comment.getProgressId());
-            progress.setCommentCount(commentCount);
-            progressRepository.save(progress);
-        }
-        
-        return savedComment;
+        // A top-level comment roots its own thread, so its id is assigned before the insert
+        comment.setId(new ObjectId().toHexString());
+        comment.setRootId(comment.getId());
+        comment.setAncestorIds(new ArrayList<>());
+        comment.setDepth(0);
+        return insert(comment);
     }
     
     public ProgressComment createReply(ProgressComment reply) {
@@ -58,8 +158,23 @@ public class ProgressCommentService {
         if (!parentComment.isPresent()) {
             return null; // Parent comment doesn't exist
         }
-        
-        return createComment(reply);
+
+        ProgressComment parent = parentComment.get();
+        reply.setRootId(parent.getRootId() != null ? parent.getRootId() : parent.getId());
+        reply.setAncestorIds(childPath(parent));
+        reply.setDepth(reply.getAncestorIds().size());
+        ProgressComment savedReply = insert(reply);
+
+        // If the thread was deleted between the parent lookup and the insert, the
+        // subtree delete missed this reply; take it back out so it is not orphaned
+        if (!mongoTemplate.exists(new Query(Criteria.where("_id").is(parent.getId())), ProgressComment.class)) {
+            if (mongoTemplate.remove(new Query(Criteria.where("_id").is(savedReply.getId())), ProgressComment.class)
+                    .getDeletedCount() > 0) {
+                adjustCommentCount(savedReply.getProgressId(), -1);
+            }
+            return null;
+        }
+        return savedReply;
     }
 
     public Optional<ProgressComment> getCommentById(String commentId) {
@@ -77,29 +192,147 @@ public class ProgressCommentService {
         return null;
     }
 
+    /**
+     * Deletes the comment and every reply beneath it at any depth. The whole
+     * subtree is matched on ancestorIds and removed with one deleteMany,
+     * followed by a single count adjustment.
+     */
     public void deleteComment(String commentId) {
-        Optional<ProgressComment> commentOptional = progressCommentRepository.findById(commentId);
-        if (commentOptional.isPresent()) {
-            ProgressComment comment = commentOptional.get();
-            String progressId = comment.getProgressId();
-            
-            // Delete all replies to this comment first
-            List<ProgressComment> replies = progressCommentRepository.findByParentCommentId(commentId);
-            for (ProgressComment reply : replies) {
-                progressCommentRepository.deleteById(reply.getId());
+        // findAndRemove hands the comment to exactly one caller, so the count drops once
+        ProgressComment comment = mongoTemplate.findAndRemove(
+                new Query(Criteria.where("_id").is(commentId)), ProgressComment.class);
+        if (comment == null) {
+            return;
+        }
+
+        long repliesRemoved = mongoTemplate.remove(
+                new Query(Criteria.where("ancestorIds").is(commentId)), ProgressComment.class).getDeletedCount();
+        adjustCommentCount(comment.getProgressId(), -(1 + repliesRemoved));
+    }
+
+    // Used after every progress comment has been deleted
+    public void deleteAllComments() {
+        progressCommentRepository.deleteAll();
+        mongoTemplate.updateMulti(new Query(Criteria.where("commentCount").ne(0)),
+                new Update().set("commentCount", 0), Progress.class);
+        collectionVersions.bump(CollectionVersions.PROGRESS);
+    }
+
+    /**
+     * Gives comments written before threads had paths their rootId,
+     * ancestorIds and depth. Top-level comments go first; replies follow a
+     * level per pass, since a reply's path is its parent's path plus the
+     * parent. Replies whose parent no longer exists are left as they are.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillThreadPaths() {
+        long updated = 0;
+        try {
+            while (true) {
+                Query roots = new Query(Criteria.where("rootId").exists(false).and("parentCommentId").is(null))
+                        .limit(backfillBatchSize);
+                roots.fields().include("_id");
+                List<ProgressComment> batch = mongoTemplate.find(roots, ProgressComment.class);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProgressComment.class);
+                for (ProgressComment root : batch) {
+                    bulk.updateOne(new Query(Criteria.where("_id").is(root.getId())),
+                            new Update().set("rootId", root.getId()).set("ancestorIds", new ArrayList<>()).set("depth", 0));
+                }
+                bulk.execute();
+                updated += batch.size();
+            }
+
+            boolean progressed = true;
+            while (progressed) {
+                progressed = false;
+                String lastId = null;
+                while (true) {
+                    Query pending = new Query(Criteria.where("rootId").exists(false).and("parentCommentId").ne(null));
+                    if (lastId != null) {
+                        pending.addCriteria(Criteria.where("_id").gt(ObjectId.isValid(lastId) ? new ObjectId(lastId) : lastId));
+                    }
+                    pending.with(Sort.by(Sort.Direction.ASC, "_id")).limit(backfillBatchSize);
+                    pending.fields().include("parentCommentId");
+                    List<ProgressComment> batch = mongoTemplate.find(pending, ProgressComment.class);
+                    if (batch.isEmpty()) {
+                        break;
+                    }
+                    lastId = batch.get(batch.size() - 1).getId();
+
+                    Set<String> parentIds = batch.stream().map(ProgressComment::getParentCommentId).collect(Collectors.toSet());
+                    Query parentQuery = new Query(Criteria.where("_id").in(parentIds).and("rootId").exists(true));
+                    parentQuery.fields().include("rootId").include("ancestorIds");
+                    Map<String, ProgressComment> parents = mongoTemplate.find(parentQuery, ProgressComment.class).stream()
+                            .collect(Collectors.toMap(ProgressComment::getId, Function.identity()));
+
+                    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProgressComment.class);
+                    int ready = 0;
+                    for (ProgressComment reply : batch) {
+                        ProgressComment parent = parents.get(reply.getParentCommentId());
+                        if (parent == null) {
+                            continue;
+                        }
+                        List<String> path = childPath(parent);
+                        bulk.updateOne(new Query(Criteria.where("_id").is(reply.getId())),
+                                new Update().set("rootId", parent.getRootId()).set("ancestorIds", path).set("depth", path.size()));
+                        ready++;
+                    }
+                    if (ready > 0) {
+                        bulk.execute();
+                        updated += ready;
+                        progressed = true;
+                    }
+                }
+            }
+
+            if (updated > 0) {
+                logger.info("Backfilled thread paths on " + updated + " progress comments");
             }
-            
-            // Delete the comment
-            progressCommentRepository.deleteById(commentId);
-            
-            // Update the comment count on the progress
-            Optional<Progress> progressOptional = progressRepository.findById(progressId);
-            if (progressOptional.isPresent()) {
-                Progress progress = progressOptional.get();
-                int commentCount = (int) progressCommentRepository.countByProgressId(progressId);
-                progress.setCommentCount(commentCount);
-                progressRepository.save(progress);
+            long orphaned = mongoTemplate.count(new Query(Criteria.where("rootId").exists(false)), ProgressComment.class);
+            if (orphaned > 0) {
+                logger.warn(orphaned + " progress comment replies have no parent and were left without a thread path");
             }
+        } catch (Exception e) {
+            logger.error("Progress comment thread path backfill failed: " + e.getMessage());
+        }
+    }
+
+    private ProgressComment insert(ProgressComment comment) {
+        ProgressComment savedComment = mongoTemplate.insert(comment);
+        adjustCommentCount(comment.getProgressId(), 1);
+        return savedComment;
+    }
+
+    private static List<String> childPath(ProgressComment parent) {
+        List<String> path = new ArrayList<>(parent.getAncestorIds() != null ? parent.getAncestorIds() : Collections.emptyList());
+        path.add(parent.getId());
+        return path;
+    }
+
+    // Replies in the same thread as the root being looked up; depth > 0 leaves out the root itself
+    private AggregationOperation threadLookup(String as, List<Document> stages) {
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("$expr", new Document("$eq", Arrays.asList("$rootId", "$$rootId")))
+                .append("depth", new Document("$gt", 0))));
+        pipeline.addAll(stages);
+        Document lookup = new Document("from", mongoTemplate.getCollectionName(ProgressComment.class))
+                .append("let", new Document("rootId", "$rootId"))
+                .append("pipeline", pipeline)
+                .append("as", as);
+        return context -> new Document("$lookup", lookup);
+    }
+
+    // One $inc on the progress document; concurrent comments can never overwrite each other's change
+    private void adjustCommentCount(String progressId, long delta) {
+        if (progressId == null || delta == 0) {
+            return;
         }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(progressId)),
+                new Update().inc("commentCount", delta), Progress.class);
+        collectionVersions.bump(CollectionVersions.PROGRESS);
     }
 }
\ No newline at end of file
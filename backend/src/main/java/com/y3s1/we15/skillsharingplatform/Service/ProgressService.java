@@ -1,14 +1,20 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
+import com.mongodb.DBRef;
 import com.y3s1.we15.skillsharingplatform.Models.Progress;
 import com.y3s1.we15.skillsharingplatform.Models.UserModel;
 import com.y3s1.we15.skillsharingplatform.Repositories.ProgressRepository;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
@@ -17,12 +23,19 @@ import java.util.Random;
 public class ProgressService {
 
     private final ProgressRepository progressRepository;
+    private final MongoTemplate mongoTemplate;
+    private final LikeCounterService likeCounterService;
+    private final CollectionVersions collectionVersions;
     private final String progressGifPath = "frontend/public/Progress_gif/";
     private final Random random = new Random();
 
     @Autowired
-    public ProgressService(ProgressRepository progressRepository) {
+    public ProgressService(ProgressRepository progressRepository, MongoTemplate mongoTemplate,
+                           LikeCounterService likeCounterService, CollectionVersions collectionVersions) {
         this.progressRepository = progressRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.likeCounterService = likeCounterService;
+        this.collectionVersions = collectionVersions;
     }
 
     public Progress createProgress(Progress progress) {
@@ -39,7 +52,9 @@ public class ProgressService {
             progress.setMediaUrl(gifUrl);
         }
         
-        return progressRepository.save(progress);
+        Progress saved = progressRepository.save(progress);
+        collectionVersions.bump(CollectionVersions.PROGRESS);
+        return saved;
     }
 
     public List<Progress> getAllProgress() {
@@ -58,6 +73,30 @@ public class ProgressService {
         return progressRepository.findById(id);
     }
 
+    /**
+     * Just the fields that the progress ETag is built from, without loading
+     * the content. The embedded author is read as a projection of the fields
+     * the profile ETag uses instead of resolving the whole user reference.
+     */
+    public Optional<Progress> getProgressVersion(String id) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("updatedAt").include("commentCount").include("likes").include("user");
+        Document stored = mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Progress.class));
+        if (stored == null) {
+            return Optional.empty();
+        }
+        DBRef author = (DBRef) stored.remove("user");
+        Progress version = mongoTemplate.getConverter().read(Progress.class, stored);
+        version.setUser(author != null ? authorVersion(author.getId()) : null);
+        return Optional.of(version);
+    }
+
+    private UserModel authorVersion(Object authorId) {
+        Query query = new Query(Criteria.where("_id").is(authorId));
+        query.fields().include("updatedAt").include("followerCount").include("followingCount");
+        return mongoTemplate.findOne(query, UserModel.class);
+    }
+
     public Progress updateProgress(String id, Progress updatedProgress) {
         Optional<Progress> existingProgress = progressRepository.findById(id);
         if (existingProgress.isPresent()) {
@@ -71,48 +110,41 @@ public class ProgressService {
                 progress.setMediaUrl(updatedProgress.getMediaUrl());
             }
             
-            return progressRepository.save(progress);
+            Progress saved = progressRepository.save(progress);
+            collectionVersions.bump(CollectionVersions.PROGRESS);
+            return saved;
         }
         return null;
     }
 
     public void deleteProgress(String id) {
         progressRepository.deleteById(id);
+        collectionVersions.bump(CollectionVersions.PROGRESS);
     }
     
     public Progress addLike(String progressId, String userId) {
-        Optional<Progress> existingProgress = progressRepository.findById(progressId);
-        if (existingProgress.isPresent()) {
-            Progress progress = existingProgress.get();
-            List<String> likes = progress.getLikes();
-            if (likes == null) {
-                likes = new ArrayList<>();
-            }
-            
-            // Only add if not already liked
-            if (!likes.contains(userId)) {
-                likes.add(userId);
-                progress.setLikes(likes);
-                return progressRepository.save(progress);
-            }
+        // Only matches if not already liked, so the count moves once per user
+        Query notLiked = new Query(Criteria.where("_id").is(progressId).and("likes").ne(userId));
+        Progress progress = mongoTemplate.findAndModify(notLiked, new Update().addToSet("likes", userId),
+                FindAndModifyOptions.options().returnNew(true), Progress.class);
+        if (progress != null) {
+            likeCounterService.increment(Progress.class, progressId, 1);
+            collectionVersions.bump(CollectionVersions.PROGRESS);
             return progress;
         }
-        return null;
+        return progressRepository.findById(progressId).orElse(null);
     }
     
     public Progress removeLike(String progressId, String userId) {
-        Optional<Progress> existingProgress = progressRepository.findById(progressId);
-        if (existingProgress.isPresent()) {
-            Progress progress = existingProgress.get();
-            List<String> likes = progress.getLikes();
-            if (likes != null && likes.contains(userId)) {
-                likes.remove(userId);
-                progress.setLikes(likes);
-                return progressRepository.save(progress);
-            }
+        Query liked = new Query(Criteria.where("_id").is(progressId).and("likes").is(userId));
+        Progress progress = mongoTemplate.findAndModify(liked, new Update().pull("likes", userId),
+                FindAndModifyOptions.options().returnNew(true), Progress.class);
+        if (progress != null) {
+            likeCounterService.increment(Progress.class, progressId, -1);
+            collectionVersions.bump(CollectionVersions.PROGRESS);
             return progress;
         }
-        return null;
+        return progressRepository.findById(progressId).orElse(null);
     }
     
     public String getRandomGifFilename() {
@@ -0,0 +1,253 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Models.TimelineEntry;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Home timelines: the posts of everyone a user follows, newest first.
+ *
+ * New posts are fanned out on write into each follower's timeline, so a feed
+ * page is one indexed read. Authors with more followers than
+ * feed.celebrity-follower-threshold are skipped at write time; their posts are
+ * pulled in at read time instead and merged with the stored timeline.
+ * Timelines are trimmed in the background to feed.timeline.max-entries.
+ */
+@Service
+public class TimelineService {
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final FollowService followService;
+
+    // Owners whose timelines grew since the last trim
+    private final Set<String> ownersToTrim = ConcurrentHashMap.newKeySet();
+
+    @Value("${feed.celebrity-follower-threshold:5000}")
+    private int celebrityThreshold;
+
+    @Value("${feed.fanout.batch-size:1000}")
+    private int fanOutBatchSize;
+
+    @Value("${feed.timeline.max-entries:800}")
+    private int maxEntries;
+
+    @Value("${feed.follow-backfill-size:20}")
+    private int followBackfillSize;
+
+    public TimelineService(MongoTemplate mongoTemplate, FollowService followService) {
+        this.mongoTemplate = mongoTemplate;
+        this.followService = followService;
+    }
+
+    /**
+     * Writes the new post into its author's timeline and, unless the author is
+     * a celebrity, into every follower's timeline in batches.
+     */
+    @Async
+    public void fanOut(Post post) {
+        if (post.getUser() == null || post.getUser().getId() == null) {
+            return;
+        }
+        String authorId = post.getUser().getId();
+        try {
+            writeEntries(Collections.singletonList(authorId), post.getId(), authorId, post.getCreatedAt());
+
+            if (isCelebrity(authorId)) {
+                // Followers read this author's posts directly; see getTimeline
+                return;
+            }
+            String lastFollowerId = null;
+            List<String> batch;
+            while (!(batch = followService.getFollowerIds(authorId, lastFollowerId, fanOutBatchSize)).isEmpty()) {
+                writeEntries(batch, post.getId(), authorId, post.getCreatedAt());
+                lastFollowerId = batch.get(batch.size() - 1);
+            }
+        } catch (Exception e) {
+            logger.error("Timeline fan-out failed for post " + post.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seeds the follower's timeline with the followee's recent posts so the
+     * feed reflects a new follow immediately.
+     */
+    @Async
+    public void onFollow(String followerId, String followeeId) {
+        try {
+            if (isCelebrity(followeeId)) {
+                return;
+            }
+            Query recent = new Query(Criteria.where("user.id").is(followeeId))
+                    .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                    .limit(followBackfillSize);
+            recent.fields().include("createdAt");
+            List<Post> posts = mongoTemplate.find(recent, Post.class);
+            if (posts.isEmpty()) {
+                return;
+            }
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class);
+            for (Post post : posts) {
+                upsertEntry(bulk, followerId, post.getId(), followeeId, post.getCreatedAt());
+            }
+            bulk.execute();
+            ownersToTrim.add(followerId);
+        } catch (Exception e) {
+            logger.error("Timeline backfill failed for " + followerId + ": " + e.getMessage());
+        }
+    }
+
+    @Async
+    public void onUnfollow(String followerId, String followeeId) {
+        mongoTemplate.remove(new Query(Criteria.where("ownerId").is(followerId).and("authorId").is(followeeId)),
+                TimelineEntry.class);
+    }
+
+    @Async
+    public void removeAll() {
+        mongoTemplate.remove(new Query(), TimelineEntry.class);
+    }
+
+    /**
+     * One page of post ids for the user's home timeline, newest first. The
+     * stored timeline is merged with recent posts of followed celebrities;
+     * both sides are ordered by (createdAt, postId) so one cursor covers both.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPage<String> getTimeline(String userId, String cursor, int pageSize) {
+        KeysetCursor after = cursor != null && !cursor.isEmpty() ? KeysetCursor.decode(cursor) : null;
+
+        Query stored = new Query(Criteria.where("ownerId").is(userId));
+        if (after != null) {
+            stored.addCriteria(after.after(true, "postId"));
+        }
+        stored.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "postId")))
+                .limit(pageSize + 1);
+        stored.fields().include("postId").include("createdAt");
+
+        // postId -> createdAt, deduplicated in case a celebrity's post was also fanned out earlier
+        Map<String, LocalDateTime> candidates = new LinkedHashMap<>();
+        for (TimelineEntry entry : mongoTemplate.find(stored, TimelineEntry.class)) {
+            candidates.put(entry.getPostId(), entry.getCreatedAt());
+        }
+
+        List<String> celebrities = followedCelebrities(userId);
+        if (!celebrities.isEmpty()) {
+            Query pulled = new Query(Criteria.where("user.id").in(celebrities));
+            if (after != null) {
+                pulled.addCriteria(after.after(true));
+            }
+            pulled.with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "_id")))
+                    .limit(pageSize + 1);
+            pulled.fields().include("createdAt");
+            for (Post post : mongoTemplate.find(pulled, Post.class)) {
+                candidates.putIfAbsent(post.getId(), post.getCreatedAt());
+            }
+        }
+
+        List<Map.Entry<String, LocalDateTime>> merged = new ArrayList<>(candidates.entrySet());
+        merged.sort(Map.Entry.<String, LocalDateTime>comparingByValue(
+                        Comparator.nullsFirst(Comparator.naturalOrder())).reversed()
+                .thenComparing(Map.Entry.<String, LocalDateTime>comparingByKey().reversed()));
+
+        boolean hasMore = merged.size() > pageSize;
+        List<Map.Entry<String, LocalDateTime>> page = hasMore ? merged.subList(0, pageSize) : merged;
+        List<String> postIds = page.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        if (!hasMore) {
+            return new CursorPage<>(postIds, null);
+        }
+        Map.Entry<String, LocalDateTime> last = page.get(pageSize - 1);
+        return new CursorPage<>(postIds, new KeysetCursor(last.getValue(), last.getKey()).encode());
+    }
+
+    /**
+     * Cuts every timeline that grew since the last run back to its newest
+     * feed.timeline.max-entries entries.
+     */
+    @Scheduled(fixedDelayString = "${feed.timeline.trim-interval-ms:60000}")
+    public void trimTimelines() {
+        List<String> owners = new ArrayList<>(ownersToTrim);
+        ownersToTrim.removeAll(owners);
+        long removed = 0;
+        for (String ownerId : owners) {
+            try {
+                Query lastKept = new Query(Criteria.where("ownerId").is(ownerId))
+                        .with(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "postId")))
+                        .skip(maxEntries - 1)
+                        .limit(1);
+                lastKept.fields().include("postId").include("createdAt");
+                TimelineEntry boundary = mongoTemplate.findOne(lastKept, TimelineEntry.class);
+                if (boundary == null) {
+                    continue;
+                }
+                Query older = new Query(Criteria.where("ownerId").is(ownerId))
+                        .addCriteria(new KeysetCursor(boundary.getCreatedAt(), boundary.getPostId()).after(true, "postId"));
+                removed += mongoTemplate.remove(older, TimelineEntry.class).getDeletedCount();
+            } catch (Exception e) {
+                logger.error("Failed to trim timeline of " + ownerId + ": " + e.getMessage());
+            }
+        }
+        if (removed > 0) {
+            logger.info("Trimmed " + removed + " timeline entries across " + owners.size() + " timelines");
+        }
+    }
+
+    private void writeEntries(List<String> ownerIds, String postId, String authorId, LocalDateTime createdAt) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineEntry.class);
+        for (String ownerId : ownerIds) {
+            upsertEntry(bulk, ownerId, postId, authorId, createdAt);
+        }
+        bulk.execute();
+        ownersToTrim.addAll(ownerIds);
+    }
+
+    // Upsert on (ownerId, postId) so a retried fan-out never duplicates an entry
+    private void upsertEntry(BulkOperations bulk, String ownerId, String postId, String authorId,
+                             LocalDateTime createdAt) {
+        bulk.upsert(new Query(Criteria.where("ownerId").is(ownerId).and("postId").is(postId)),
+                new Update().setOnInsert("authorId", authorId).setOnInsert("createdAt", createdAt));
+    }
+
+    private boolean isCelebrity(String userId) {
+        return mongoTemplate.exists(new Query(Criteria.where("_id").is(userId)
+                .and("followerCount").gt(celebrityThreshold)), UserModel.class);
+    }
+
+    // Celebrities are few, so find them first and then check which of them the user follows
+    private List<String> followedCelebrities(String userId) {
+        Query celebrities = new Query(Criteria.where("followerCount").gt(celebrityThreshold));
+        celebrities.fields().include("_id");
+        List<String> celebrityIds = mongoTemplate.find(celebrities, UserModel.class).stream()
+                .map(UserModel::getId)
+                .collect(Collectors.toList());
+        if (celebrityIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return followService.filterFollowed(userId, celebrityIds);
+    }
+}
@@ -0,0 +1,427 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index over username, first name and last name for people
+ * search. Every token is kept in a sorted map for prefix lookups ("jo" finds
+ * "john") and split into trigrams for matches inside a word ("ohn" finds
+ * "john"). Terms too short for a trigram ("oh") are found inside words by a
+ * scan over the distinct tokens. Every query term must match; an exact token outranks a prefix,
+ * which outranks a match inside the name, and username matches count extra.
+ *
+ * The index is rebuilt from Mongo at startup. UserSearchIndexCallback reindexes
+ * a user after every save and the user delete paths remove them, so it only
+ * sees writes made through this instance.
+ */
+@Service
+public class UserSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final int USERNAME_WEIGHT = 3;
+    private static final int NAME_WEIGHT = 2;
+    private static final int EXACT = 4;
+    private static final int PREFIX = 3;
+    private static final int INFIX = 2;
+    // A trigram candidate must share at least this share of the term's trigrams
+    private static final double MIN_TRIGRAM_OVERLAP = 0.5;
+    // Separates the username from the id in browse keys; sorts before any real character
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final MongoTemplate mongoTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, IndexedUser> users = new HashMap<>();
+    // token -> ids of users with that token in any field
+    private final TreeMap<String, Set<String>> tokens = new TreeMap<>();
+    // trigram -> ids of users with that trigram in any token
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+    // "username\0id" for listing everyone in name order when the query is empty
+    private final NavigableSet<String> browseKeys = new TreeSet<>();
+
+    // Users deleted while a rebuild is streaming, so the rebuild does not resurrect them
+    private final Set<String> removedDuringRebuild = new HashSet<>();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    private final LatencyRecorder latency = new LatencyRecorder();
+
+    public UserSearchIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adds the user to the index, replacing whatever was indexed for them before.
+     */
+    public void index(UserModel user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        IndexedUser entry = analyze(user);
+        lock.writeLock().lock();
+        try {
+            removeLocked(user.getId());
+            addLocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String userId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(userId);
+            if (rebuilding) {
+                removedDuringRebuild.add(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * One page of matching user ids, best match first; ties go to the
+     * shorter username. An empty query lists every user by username.
+     */
+    public SearchHits search(String queryText, int offset, int limit) {
+        long started = System.nanoTime();
+        try {
+            List<String> terms = new ArrayList<>(new LinkedHashSet<>(PostSearchIndex.tokenize(queryText)));
+            lock.readLock().lock();
+            try {
+                if (terms.isEmpty()) {
+                    return browseLocked(offset, limit);
+                }
+
+                Set<String> candidates = null;
+                for (String term : terms) {
+                    Set<String> matches = candidatesLocked(term);
+                    if (candidates == null) {
+                        candidates = matches;
+                    } else {
+                        candidates.retainAll(matches);
+                    }
+                    if (candidates.isEmpty()) {
+                        return new SearchHits(Collections.emptyList(), 0);
+                    }
+                }
+
+                Map<String, Double> scores = new HashMap<>();
+                for (String userId : candidates) {
+                    double score = score(users.get(userId), terms);
+                    if (score > 0) {
+                        scores.put(userId, score);
+                    }
+                }
+                List<String> ranked = new ArrayList<>(scores.keySet());
+                ranked.sort(Comparator.<String>comparingDouble(scores::get).reversed()
+                        .thenComparingInt(id -> users.get(id).username.length())
+                        .thenComparing(id -> users.get(id).browseKey));
+
+                int from = Math.min(offset, ranked.size());
+                int to = Math.min(from + limit, ranked.size());
+                return new SearchHits(new ArrayList<>(ranked.subList(from, to)), ranked.size());
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            latency.record(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Streams every user's name fields from Mongo into the index. Writes that
+     * land while the rebuild runs win over the streamed copy.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            ready = false;
+            removedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int indexed = 0;
+        Query query = new Query();
+        query.fields().include("username").include("firstName").include("lastName");
+        try (Stream<UserModel> stream = mongoTemplate.stream(query, UserModel.class)) {
+            Iterator<UserModel> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                UserModel user = iterator.next();
+                IndexedUser entry = analyze(user);
+                lock.writeLock().lock();
+                try {
+                    if (!users.containsKey(user.getId()) && !removedDuringRebuild.contains(user.getId())) {
+                        addLocked(entry);
+                        indexed++;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            ready = true;
+            logger.info("Indexed " + indexed + " users for search in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            logger.error("User search index rebuild failed: " + e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                removedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Index size and query latency since startup. Percentiles are taken over
+     * the most recent queries only.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("ready", ready);
+            stats.put("users", users.size());
+            stats.put("tokens", tokens.size());
+            stats.put("trigrams", trigrams.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        latency.describe(stats);
+        return stats;
+    }
+
+    private SearchHits browseLocked(int offset, int limit) {
+        List<String> page = new ArrayList<>(Math.min(limit, users.size()));
+        Iterator<String> keys = browseKeys.iterator();
+        for (int skipped = 0; skipped < offset && keys.hasNext(); skipped++) {
+            keys.next();
+        }
+        while (page.size() < limit && keys.hasNext()) {
+            String key = keys.next();
+            page.add(key.substring(key.lastIndexOf(KEY_SEPARATOR) + 1));
+        }
+        return new SearchHits(page, users.size());
+    }
+
+    // Users with a token starting with the term, plus users sharing enough of its trigrams;
+    // a term without trigrams is looked for inside every distinct token instead
+    private Set<String> candidatesLocked(String term) {
+        Set<String> matches = new HashSet<>();
+        for (Set<String> ids : tokens.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            matches.addAll(ids);
+        }
+        Set<String> grams = trigramsOf(term);
+        if (grams.isEmpty()) {
+            for (Map.Entry<String, Set<String>> token : tokens.entrySet()) {
+                if (token.getKey().contains(term)) {
+                    matches.addAll(token.getValue());
+                }
+            }
+        } else {
+            int needed = (int) Math.ceil(grams.size() * MIN_TRIGRAM_OVERLAP);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                Set<String> ids = trigrams.get(gram);
+                if (ids != null) {
+                    for (String id : ids) {
+                        shared.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+            shared.forEach((id, count) -> {
+                if (count >= needed) {
+                    matches.add(id);
+                }
+            });
+        }
+        return matches;
+    }
+
+    // Sum over terms of each term's best field match; zero if any term matches nothing
+    private static double score(IndexedUser user, List<String> terms) {
+        double total = 0;
+        for (String term : terms) {
+            double best = Math.max(
+                    USERNAME_WEIGHT * match(user.username, user.usernameTokens, term),
+                    NAME_WEIGHT * Math.max(
+                            match(user.firstName, user.firstNameTokens, term),
+                            match(user.lastName, user.lastNameTokens, term)));
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static double match(String field, List<String> fieldTokens, String term) {
+        double best = 0;
+        for (String token : fieldTokens) {
+            if (token.equals(term)) {
+                return EXACT;
+            }
+            if (token.startsWith(term)) {
+                best = PREFIX;
+            }
+        }
+        if (best == 0 && field.contains(term)) {
+            best = INFIX;
+        }
+        if (best == 0) {
+            Set<String> termGrams = trigramsOf(term);
+            if (!termGrams.isEmpty()) {
+                Set<String> fieldGrams = new HashSet<>();
+                for (String token : fieldTokens) {
+                    fieldGrams.addAll(trigramsOf(token));
+                }
+                int shared = 0;
+                for (String gram : termGrams) {
+                    if (fieldGrams.contains(gram)) {
+                        shared++;
+                    }
+                }
+                double overlap = (double) shared / termGrams.size();
+                if (overlap >= MIN_TRIGRAM_OVERLAP) {
+                    best = overlap;
+                }
+            }
+        }
+        return best;
+    }
+
+    private static Set<String> trigramsOf(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            grams.add(token.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static IndexedUser analyze(UserModel user) {
+        return new IndexedUser(user.getId(), normalize(user.getUsername()),
+                normalize(user.getFirstName()), normalize(user.getLastName()));
+    }
+
+    private static String normalize(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+
+    private void addLocked(IndexedUser entry) {
+        users.put(entry.id, entry);
+        browseKeys.add(entry.browseKey);
+        for (String token : entry.allTokens()) {
+            tokens.computeIfAbsent(token, t -> new HashSet<>()).add(entry.id);
+            for (String gram : trigramsOf(token)) {
+                trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(entry.id);
+            }
+        }
+    }
+
+    private void removeLocked(String userId) {
+        IndexedUser previous = users.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        browseKeys.remove(previous.browseKey);
+        for (String token : previous.allTokens()) {
+            removePosting(tokens, token, userId);
+            for (String gram : trigramsOf(token)) {
+                removePosting(trigrams, gram, userId);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<String>> postings, String key, String userId) {
+        Set<String> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(userId);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static final class IndexedUser {
+        private final String id;
+        private final String username;
+        private final String firstName;
+        private final String lastName;
+        private final List<String> usernameTokens;
+        private final List<String> firstNameTokens;
+        private final List<String> lastNameTokens;
+        private final String browseKey;
+
+        private IndexedUser(String id, String username, String firstName, String lastName) {
+            this.id = id;
+            this.username = username;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.usernameTokens = PostSearchIndex.tokenize(username);
+            this.firstNameTokens = PostSearchIndex.tokenize(firstName);
+            this.lastNameTokens = PostSearchIndex.tokenize(lastName);
+            this.browseKey = username + KEY_SEPARATOR + id;
+        }
+
+        private Set<String> allTokens() {
+            Set<String> all = new HashSet<>(usernameTokens);
+            all.addAll(firstNameTokens);
+            all.addAll(lastNameTokens);
+            return all;
+        }
+    }
+
+    /**
+     * One page of matching user ids in rank order, plus the total match count.
+     */
+    public static final class SearchHits {
+        private final List<String> userIds;
+        private final int total;
+
+        public SearchHits(List<String> userIds, int total) {
+            this.userIds = userIds;
+            this.total = total;
+        }
+
+        public List<String> getUserIds() {
+            return userIds;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+}
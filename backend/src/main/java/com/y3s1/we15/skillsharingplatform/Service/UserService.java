@@ -1,6 +1,9 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import org.springframework.data.domain.Page;
 import java.util.List;
 import java.util.Optional;
 
@@ -8,6 +11,7 @@ public interface UserService {
     UserModel createUser(UserModel user);
     List<UserModel> getAllUsers();
     Optional<UserModel> getUserById(String id);
+    Optional<UserModel> getUserVersion(String id);
     UserModel updateUser(UserModel user);
     void deleteUser(String id);
     boolean existsByUsername(String username);
@@ -21,9 +25,10 @@ public interface UserService {
     // Follow/Unfollow methods
     UserModel followUser(String userId, String userToFollowId);
     UserModel unfollowUser(String userId, String userToUnfollowId);
-    List<UserModel> getFollowers(String userId);
-    List<UserModel> getFollowing(String userId);
-    List<UserModel> searchUsers(String query, int page, int size);
+    CursorPage<UserSummary> getFollowers(String userId, String cursor, Integer limit);
+    CursorPage<UserSummary> getFollowing(String userId, String cursor, Integer limit);
+    List<String> filterFollowing(String userId, List<String> candidateIds);
+    Page<UserSummary> searchUsers(String query, int page, int size);
     
     // Get current user ID
     String getCurrentUserId();
@@ -1,16 +1,31 @@
 package com.y3s1.we15.skillsharingplatform.Service;
 
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
 import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
 import com.y3s1.we15.skillsharingplatform.Repositories.UserRepository;
+import com.y3s1.we15.skillsharingplatform.Security.PrincipalCache;
+import com.y3s1.we15.skillsharingplatform.Security.TokenVersions;
+import com.y3s1.we15.skillsharingplatform.Security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +33,33 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserSummaryService userSummaryService;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private TokenVersions tokenVersions;
+
+    @Value("${users.follows.page.default-size:50}")
+    private int defaultFollowPageSize;
+
+    @Value("${users.follows.page.max-size:200}")
+    private int maxFollowPageSize;
+
     @Override
     public UserModel createUser(UserModel user) {
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -40,6 +82,24 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(id);
     }
 
+    @Override
+    public Optional<UserModel> getUserVersion(String id) {
+        // Only what the profile ETag is built from
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("updatedAt").include("followerCount").include("followingCount");
+        return Optional.ofNullable(mongoTemplate.findOne(query, UserModel.class));
+    }
+
+    /**
+     * Gives users saved before updatedAt was stamped a starting value, so
+     * their profile ETag changes on the next save. One multi-document update.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUpdatedAt() {
+        mongoTemplate.updateMulti(new Query(Criteria.where("updatedAt").is(null)),
+                new Update().set("updatedAt", LocalDateTime.now()), UserModel.class);
+    }
+
     @Override
     public UserModel updateUser(UserModel user) {
         return userRepository.save(user);
@@ -48,6 +108,10 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(String id) {
         userRepository.deleteById(id);
+        userSearchIndex.remove(id);
+        principalCache.invalidateUser(id);
+        tokenVersions.invalidate(id);
+        followService.removeUser(id);
     }
 
     @Override
@@ -103,107 +167,57 @@ public class UserServiceImpl implements UserService {
         if (userId.equals(userToFollowId)) {
             throw new RuntimeException("Users cannot follow themselves");
         }
-        
-        Optional<UserModel> currentUserOpt = userRepository.findById(userId);
-        Optional<UserModel> userToFollowOpt = userRepository.findById(userToFollowId);
-        
-        if (currentUserOpt.isPresent() && userToFollowOpt.isPresent()) {
-            UserModel currentUser = currentUserOpt.get();
-            UserModel userToFollow = userToFollowOpt.get();
-            
-            // Add to following list of current user
-            currentUser.addFollowing(userToFollowId);
-            
-            // Add to followers list of the user being followed
-            userToFollow.addFollower(userId);
-            
-            // Save both users
-            userRepository.save(userToFollow);
-            return userRepository.save(currentUser);
-        } else {
+        if (!userRepository.existsById(userId) || !userRepository.existsById(userToFollowId)) {
             throw new RuntimeException("One or both users not found");
         }
+        if (followService.follow(userId, userToFollowId)) {
+            timelineService.onFollow(userId, userToFollowId);
+        }
+        return userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
     }
     
     @Override
     public UserModel unfollowUser(String userId, String userToUnfollowId) {
-        Optional<UserModel> currentUserOpt = userRepository.findById(userId);
-        Optional<UserModel> userToUnfollowOpt = userRepository.findById(userToUnfollowId);
-        
-        if (currentUserOpt.isPresent() && userToUnfollowOpt.isPresent()) {
-            UserModel currentUser = currentUserOpt.get();
-            UserModel userToUnfollow = userToUnfollowOpt.get();
-            
-            // Remove from following list of current user
-            currentUser.removeFollowing(userToUnfollowId);
-            
-            // Remove from followers list of the user being unfollowed
-            userToUnfollow.removeFollower(userId);
-            
-            // Save both users
-            userRepository.save(userToUnfollow);
-            return userRepository.save(currentUser);
-        } else {
+        if (!userRepository.existsById(userId) || !userRepository.existsById(userToUnfollowId)) {
             throw new RuntimeException("One or both users not found");
         }
+        if (followService.unfollow(userId, userToUnfollowId)) {
+            timelineService.onUnfollow(userId, userToUnfollowId);
+        }
+        return userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
     }
     
     @Override
-    public List<UserModel> getFollowers(String userId) {
-        Optional<UserModel> userOpt = userRepository.findById(userId);
-        
-        if (userOpt.isPresent()) {
-            UserModel user = userOpt.get();
-            List<UserModel> followers = new ArrayList<>();
-            
-            for (String followerId : user.getFollowers()) {
-                userRepository.findById(followerId).ifPresent(followers::add);
-            }
-            
-            return followers;
-        } else {
-            throw new RuntimeException("User not found");
-        }
+    public CursorPage<UserSummary> getFollowers(String userId, String cursor, Integer limit) {
+        return followPage(userId, true, cursor, limit);
     }
     
     @Override
-    public List<UserModel> getFollowing(String userId) {
-        Optional<UserModel> userOpt = userRepository.findById(userId);
-        
-        if (userOpt.isPresent()) {
-            UserModel user = userOpt.get();
-            List<UserModel> following = new ArrayList<>();
-            
-            for (String followingId : user.getFollowing()) {
-                userRepository.findById(followingId).ifPresent(following::add);
-            }
-            
-            return following;
-        } else {
-            throw new RuntimeException("User not found");
+    public CursorPage<UserSummary> getFollowing(String userId, String cursor, Integer limit) {
+        return followPage(userId, false, cursor, limit);
+    }
+    
+    @Override
+    public List<String> filterFollowing(String userId, List<String> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return new ArrayList<>();
         }
+        return followService.filterFollowed(userId, candidateIds);
     }
     
     @Override
-    public List<UserModel> searchUsers(String query, int page, int size) {
+    public Page<UserSummary> searchUsers(String query, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        List<UserModel> allUsers = userRepository.findAll();
-        
-        // Filter users based on the query (case-insensitive)
-        String lowercaseQuery = query.toLowerCase();
-        return allUsers.stream()
-            .filter(user -> 
-                (user.getUsername() != null && user.getUsername().toLowerCase().contains(lowercaseQuery)) ||
-                (user.getFirstName() != null && user.getFirstName().toLowerCase().contains(lowercaseQuery)) ||
-                (user.getLastName() != null && user.getLastName().toLowerCase().contains(lowercaseQuery)))
-            .skip(pageable.getOffset())
-            .limit(pageable.getPageSize())
-            .collect(Collectors.toList());
+        UserSearchIndex.SearchHits hits = userSearchIndex.search(query, (int) pageable.getOffset(), size);
+        return new PageImpl<>(userSummaryService.getSummaries(hits.getUserIds()), pageable, hits.getTotal());
     }
 
     @Override
     public String getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
         if (authentication != null && authentication.isAuthenticated()) {
             String username = authentication.getName();
             UserModel user = findByUsername(username);
@@ -213,4 +227,27 @@ public class UserServiceImpl implements UserService {
         }
         throw new RuntimeException("User not authenticated");
     }
+
+    // Ids come from an index-only read of the follows collection and are
+    // resolved to summaries in one batched lookup; the total is the stored counter
+    private CursorPage<UserSummary> followPage(String userId, boolean followers, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultFollowPageSize : Math.max(1, Math.min(limit, maxFollowPageSize));
+        String afterId = cursor == null || cursor.isEmpty() ? null : IdCursor.decode(cursor);
+
+        Query userQuery = new Query(Criteria.where("_id").is(userId));
+        userQuery.fields().include("followerCount").include("followingCount");
+        UserModel user = mongoTemplate.findOne(userQuery, UserModel.class);
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+
+        List<String> ids = followers
+                ? followService.getFollowerIds(userId, afterId, pageSize + 1)
+                : followService.getFollowingIds(userId, afterId, pageSize + 1);
+        boolean hasMore = ids.size() > pageSize;
+        List<String> page = hasMore ? ids.subList(0, pageSize) : ids;
+        List<UserSummary> users = userSummaryService.getSummaries(page);
+        long total = followers ? user.getFollowerCount() : user.getFollowingCount();
+        return new CursorPage<>(users, hasMore ? IdCursor.encode(page.get(pageSize - 1)) : null, total);
+    }
 }
\ No newline at end of file
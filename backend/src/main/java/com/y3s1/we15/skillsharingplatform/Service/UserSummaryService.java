@@ -0,0 +1,86 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Models.UserSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves user ids to display summaries for comment, like and notification
+ * author lists. Misses are loaded together in one projected query, and
+ * summaries are cached briefly so a busy thread does not hit the users
+ * collection on every render. Entries are dropped whenever the user is saved.
+ */
+@Service
+public class UserSummaryService {
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, UserSummary> summaries;
+
+    public UserSummaryService(MongoTemplate mongoTemplate,
+                              @Value("${users.summary-cache.ttl-ms:30000}") long ttlMs,
+                              @Value("${users.summary-cache.max-entries:10000}") long maxEntries) {
+        this.mongoTemplate = mongoTemplate;
+        this.summaries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Summaries for the given ids, in request order with duplicates removed.
+     * Ids that match no user are left out.
+     */
+    public List<UserSummary> getSummaries(Collection<String> userIds) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : userIds) {
+            if (id != null && !id.isEmpty()) {
+                ids.add(id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, UserSummary> found = summaries.getAll(ids, this::load);
+        List<UserSummary> result = new ArrayList<>(found.size());
+        for (String id : ids) {
+            UserSummary summary = found.get(id);
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) {
+            summaries.invalidate(userId);
+        }
+    }
+
+    // Only the summary fields are read; password and follower lists never leave Mongo
+    private Map<String, UserSummary> load(Set<? extends String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids));
+        query.fields().include("username").include("firstName").include("lastName").include("profilePicture");
+        Map<String, UserSummary> loaded = new HashMap<>();
+        for (UserModel user : mongoTemplate.find(query, UserModel.class)) {
+            loaded.put(user.getId(), UserSummary.from(user));
+        }
+        return loaded;
+    }
+}
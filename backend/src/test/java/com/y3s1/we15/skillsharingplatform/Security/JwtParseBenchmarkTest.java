@@ -0,0 +1,100 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Logs the per-request cost of checking a JWT: the old validate-then-parse
+ * approach, which built two parsers and checked the signature twice, next to
+ * one shared-parser parse and a verified-token cache hit. A timing loop, not
+ * a correctness check, so it only runs when asked for, e.g.
+ * RUN_BENCHMARKS=true mvn test -Dtest=JwtParseBenchmarkTest
+ * It is a warmed-up loop rather than a JMH benchmark, since the build does not
+ * pull in JMH; compare the three numbers from one run, not across machines.
+ */
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+class JwtParseBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(JwtParseBenchmarkTest.class);
+
+    private static final String SECRET = "test-secret-that-is-at-least-thirty-two-bytes-long";
+    private static final int REQUESTS = 20_000;
+
+    private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void comparePerRequestCost() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tokens.add(token("user" + i));
+        }
+        JwtUtils cached = jwtUtils(1_000);
+        JwtUtils uncached = jwtUtils(0);
+
+        // Warm up every path before timing
+        for (int i = 0; i < REQUESTS / 10; i++) {
+            String token = tokens.get(i % tokens.size());
+            parseTwice(token);
+            uncached.parseClaims(token);
+            cached.parseClaims(token);
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            parseTwice(tokens.get(i % tokens.size()));
+        }
+        long beforeNs = (System.nanoTime() - started) / REQUESTS;
+
+        started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            uncached.parseClaims(tokens.get(i % tokens.size()));
+        }
+        long singleParseNs = (System.nanoTime() - started) / REQUESTS;
+
+        started = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            cached.parseClaims(tokens.get(i % tokens.size()));
+        }
+        long cachedNs = (System.nanoTime() - started) / REQUESTS;
+
+        logger.info("JWT check per request: " + beforeNs + " ns validating then parsing, "
+                + singleParseNs + " ns with one shared-parser parse, " + cachedNs + " ns for a cached token");
+    }
+
+    private JwtUtils jwtUtils(long maxVerifiedTokens) {
+        JwtUtils jwtUtils = new JwtUtils(maxVerifiedTokens);
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        return jwtUtils;
+    }
+
+    // What JwtAuthenticationFilter used to do: validateJwtToken, then getUsernameFromJwtToken
+    private String parseTwice(String token) {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    private String token(String username) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(JwtUtils.USER_ID_CLAIM, "user-" + username)
+                .claim(JwtUtils.ROLES_CLAIM, List.of("ROLE_USER"))
+                .claim(JwtUtils.VERSION_CLAIM, 0)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
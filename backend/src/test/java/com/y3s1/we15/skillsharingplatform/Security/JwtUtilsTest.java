@@ -0,0 +1,77 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that parseClaims verifies once, serves repeats from the
+ * verified-token cache, and still rejects tampered and expired tokens.
+ */
+class JwtUtilsTest {
+
+    private static final String SECRET = "test-secret-that-is-at-least-thirty-two-bytes-long";
+
+    private final SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils(1_000);
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+    }
+
+    @Test
+    void repeatedTokenIsServedFromCache() {
+        String token = token("ada", 60_000);
+
+        Claims first = jwtUtils.parseClaims(token);
+        assertNotNull(first);
+        assertEquals("ada", first.getSubject());
+        assertEquals("user-ada", first.get(JwtUtils.USER_ID_CLAIM, String.class));
+        assertSame(first, jwtUtils.parseClaims(token));
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterOriginalWasCached() {
+        String token = token("ada", 60_000);
+        assertNotNull(jwtUtils.parseClaims(token));
+
+        String[] parts = token.split("\\.");
+        String forgedPayload = token("admin", 60_000).split("\\.")[1];
+        assertNull(jwtUtils.parseClaims(parts[0] + "." + forgedPayload + "." + parts[2]));
+        assertNull(jwtUtils.parseClaims(token + "x"));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        assertNull(jwtUtils.parseClaims(token("ada", -1_000)));
+        assertNull(jwtUtils.parseClaims(""));
+    }
+
+    private String token(String username, long ttlMs) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(JwtUtils.USER_ID_CLAIM, "user-" + username)
+                .claim(JwtUtils.ROLES_CLAIM, List.of("ROLE_USER"))
+                .claim(JwtUtils.VERSION_CLAIM, 0)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + ttlMs))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,82 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that cached principals carry id, roles and summary, are served
+ * without re-reading the user, and are dropped by id on rename and delete.
+ * Needs a disposable database, e.g. MONGODB_TEST_URI=mongodb://localhost:27017
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class PrincipalCacheTest {
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(client, "skillsharing_test_" + System.nanoTime());
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void cachesPrincipalUntilUserIsInvalidated() {
+        PrincipalCache cache = new PrincipalCache(mongoTemplate, 60_000, 100);
+        UserModel user = new UserModel();
+        user.setUsername("ada");
+        user.setFirstName("Ada");
+        user.setRole(Set.of("ROLE_ADMIN"));
+        user = mongoTemplate.insert(user);
+
+        UserPrincipal principal = cache.get("ada");
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("Ada", principal.getSummary().getFirstName());
+        assertTrue(principal.hasRole("ADMIN"));
+        assertNull(principal.getPassword());
+
+        // A change behind the cache's back is not seen until the entry is dropped
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.getId())),
+                new Update().set("username", "ada2").set("role", Set.of("ROLE_USER")), UserModel.class);
+        assertSame(principal, cache.get("ada"));
+
+        cache.invalidateUser(user.getId());
+        assertNull(cache.get("ada"));
+        UserPrincipal renamed = cache.get("ada2");
+        assertEquals(user.getId(), renamed.getId());
+        assertTrue(renamed.hasRole("USER"));
+    }
+
+    @Test
+    void userWithoutRolesGetsDefaultRole() {
+        PrincipalCache cache = new PrincipalCache(mongoTemplate, 60_000, 100);
+        UserModel user = new UserModel();
+        user.setUsername("norole");
+        mongoTemplate.insert(user);
+
+        assertTrue(cache.get("norole").hasRole("ROLE_USER"));
+        assertNull(cache.get("nobody"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.y3s1.we15.skillsharingplatform.Security;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Config.ReadOnlyAwareMongoTemplate;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that revoking bumps the version tokens are checked against, that a
+ * stale full-document save cannot roll it back, and that a deleted user's
+ * tokens stop matching.
+ * Needs a disposable database, e.g. MONGODB_TEST_URI=mongodb://localhost:27017
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class TokenVersionsTest {
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new ReadOnlyAwareMongoTemplate(client, "skillsharing_test_" + System.nanoTime());
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void revokeInvalidatesEarlierTokensAndSurvivesStaleSave() {
+        TokenVersions versions = new TokenVersions(mongoTemplate, 300_000, 100);
+        UserModel user = new UserModel();
+        user.setUsername("grace");
+        user = mongoTemplate.insert(user);
+
+        assertTrue(versions.isCurrent(user.getId(), 0));
+        assertEquals(1, versions.revoke(user.getId()));
+        assertFalse(versions.isCurrent(user.getId(), 0));
+
+        // The in-memory copy still says 0; saving it must not bring old tokens back
+        user.setFirstName("Grace");
+        mongoTemplate.save(user);
+        TokenVersions fresh = new TokenVersions(mongoTemplate, 300_000, 100);
+        assertTrue(fresh.isCurrent(user.getId(), 1));
+        assertFalse(fresh.isCurrent(user.getId(), 0));
+    }
+
+    @Test
+    void deletedUserMatchesNoVersion() {
+        TokenVersions versions = new TokenVersions(mongoTemplate, 300_000, 100);
+        UserModel user = new UserModel();
+        user.setUsername("gone");
+        user = mongoTemplate.insert(user);
+        assertTrue(versions.isCurrent(user.getId(), 0));
+
+        mongoTemplate.remove(user);
+        versions.invalidate(user.getId());
+        assertFalse(versions.isCurrent(user.getId(), 0));
+    }
+}
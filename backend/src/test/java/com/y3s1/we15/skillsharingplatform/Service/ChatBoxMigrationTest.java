@@ -0,0 +1,110 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Models.ChatBox;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Repositories.ChatBoxRepository;
+import com.y3s1.we15.skillsharingplatform.Repositories.UserRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Writes chat messages in the old shape, with whole user documents embedded
+ * as sender and recipient, runs the migration and checks that they come back
+ * through the id-based conversation query with no user data left behind.
+ * Needs a disposable database, e.g. MONGODB_TEST_URI=mongodb://localhost:27017
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class ChatBoxMigrationTest {
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ChatBoxService chatBoxService;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(client, "skillsharing_test_" + System.nanoTime());
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        chatBoxService = new ChatBoxService(factory.getRepository(ChatBoxRepository.class),
+                factory.getRepository(UserRepository.class), mongoTemplate,
+                new ConversationService(mongoTemplate, new UserSummaryService(mongoTemplate, 30_000, 100), 30, 100, 7), 7);
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void legacyMessagesAreRewrittenToIds() {
+        UserModel alice = user("alice");
+        UserModel bob = user("bob");
+        String collection = mongoTemplate.getCollectionName(ChatBox.class);
+
+        // 20 messages alternating direction, more than two migration batches
+        List<Document> legacy = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            UserModel from = i % 2 == 0 ? alice : bob;
+            UserModel to = i % 2 == 0 ? bob : alice;
+            legacy.add(new Document("sender", mongoTemplate.getConverter().convertToMongoType(from))
+                    .append("recipient", mongoTemplate.getConverter().convertToMongoType(to))
+                    .append("content", "message " + i)
+                    .append("createdAt", new Date(1_000_000L + i)));
+        }
+        mongoTemplate.getCollection(collection).insertMany(legacy);
+
+        chatBoxService.migrateEmbeddedUsers();
+
+        List<ChatBox> thread = chatBoxService.getMessagesBetweenUsers(bob.getId(), alice.getId());
+        assertEquals(20, thread.size());
+        assertEquals("message 0", thread.get(0).getContent());
+        assertEquals(alice.getId(), thread.get(0).getSenderId());
+        assertEquals(alice.getId(), thread.get(1).getRecipientId());
+        assertFalse(mongoTemplate.exists(new Query(new Criteria().orOperator(
+                Criteria.where("sender").exists(true), Criteria.where("recipient").exists(true))), collection));
+
+        // The migration also creates the conversation summary from the latest message
+        List<Map<String, Object>> recent = chatBoxService.getRecentChats(alice.getId(), null, null).getItems();
+        assertEquals(1, recent.size());
+        assertEquals(bob.getId(), recent.get(0).get("userId"));
+        assertEquals("message 19", recent.get(0).get("lastMessage"));
+    }
+
+    @Test
+    void messageWithoutEmbeddedUserIsNotRetriedForever() {
+        String collection = mongoTemplate.getCollectionName(ChatBox.class);
+        mongoTemplate.getCollection(collection).insertOne(new Document("content", "orphan"));
+
+        chatBoxService.migrateEmbeddedUsers();
+
+        Document orphan = mongoTemplate.findOne(new Query(Criteria.where("content").is("orphan")), Document.class, collection);
+        assertNull(orphan.get("conversationId"));
+        assertEquals(0, mongoTemplate.count(new Query(Criteria.where("senderId").exists(false)), collection));
+    }
+
+    private static UserModel user(String username) {
+        UserModel user = new UserModel();
+        user.setUsername(username);
+        user.setPassword("hash-" + username);
+        return mongoTemplate.insert(user);
+    }
+}
@@ -0,0 +1,131 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Models.ChatBox;
+import com.y3s1.we15.skillsharingplatform.Models.ConversationSummary;
+import com.y3s1.we15.skillsharingplatform.Models.CursorPage;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import com.y3s1.we15.skillsharingplatform.Repositories.ChatBoxRepository;
+import com.y3s1.we15.skillsharingplatform.Repositories.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives sends, edits, reads and deletes through ChatBoxService against a
+ * real MongoDB and checks the conversation summaries that back the recent
+ * chats listing.
+ * Needs a disposable database, e.g. MONGODB_TEST_URI=mongodb://localhost:27017
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class ConversationSummaryTest {
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ChatBoxService chatBoxService;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(client, "skillsharing_test_" + System.nanoTime());
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(mongoTemplate);
+        ConversationService conversationService = new ConversationService(
+                mongoTemplate, new UserSummaryService(mongoTemplate, 30_000, 100), 30, 100, 500);
+        chatBoxService = new ChatBoxService(factory.getRepository(ChatBoxRepository.class),
+                factory.getRepository(UserRepository.class), mongoTemplate, conversationService, 500);
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void summaryTracksLastMessageAndUnreadCounts() {
+        UserModel alice = user("alice");
+        UserModel bob = user("bob");
+
+        chatBoxService.sendMessage(alice.getId(), bob.getId(), "hi");
+        ChatBox second = chatBoxService.sendMessage(alice.getId(), bob.getId(), "are you there?");
+        ConversationSummary summary = summary(alice, bob);
+        assertEquals("are you there?", summary.getLastMessage());
+        assertEquals(2, summary.unreadFor(bob.getId()));
+        assertEquals(0, summary.unreadFor(alice.getId()));
+
+        chatBoxService.editMessage(second.getId(), "hello?");
+        assertEquals("hello?", summary(alice, bob).getLastMessage());
+
+        chatBoxService.markConversationRead(bob.getId(), alice.getId());
+        ChatBox reply = chatBoxService.sendMessage(bob.getId(), alice.getId(), "yes");
+        summary = summary(alice, bob);
+        assertEquals(0, summary.unreadFor(bob.getId()));
+        assertEquals(1, summary.unreadFor(alice.getId()));
+
+        // Deleting the unread latest message restores the previous one and the count
+        chatBoxService.deleteMessage(reply.getId());
+        summary = summary(alice, bob);
+        assertEquals("hello?", summary.getLastMessage());
+        assertEquals(0, summary.unreadFor(alice.getId()));
+
+        Map<String, Object> chat = chatBoxService.getRecentChats(bob.getId(), null, null).getItems().get(0);
+        assertEquals(alice.getId(), chat.get("userId"));
+        assertEquals(0L, chat.get("unreadCount"));
+
+        for (ChatBox message : chatBoxService.getMessagesBetweenUsers(alice.getId(), bob.getId())) {
+            chatBoxService.deleteMessage(message.getId());
+        }
+        assertNull(summary(alice, bob));
+    }
+
+    @Test
+    void recentChatsPageThroughEveryConversationOnce() {
+        UserModel me = user("me");
+        List<String> partners = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            UserModel partner = user("partner" + i);
+            partners.add(partner.getId());
+            chatBoxService.sendMessage(partner.getId(), me.getId(), "message " + i);
+        }
+
+        Set<Object> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Map<String, Object>> page = chatBoxService.getRecentChats(me.getId(), cursor, 10);
+            for (Map<String, Object> chat : page.getItems()) {
+                assertTrue(seen.add(chat.get("userId")));
+            }
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(new HashSet<>(partners), seen);
+        assertEquals("message 24", chatBoxService.getRecentChats(me.getId(), null, 1).getItems().get(0).get("lastMessage"));
+    }
+
+    private static ConversationSummary summary(UserModel a, UserModel b) {
+        return mongoTemplate.findById(ChatBox.conversationId(a.getId(), b.getId()), ConversationSummary.class);
+    }
+
+    private static UserModel user(String username) {
+        UserModel user = new UserModel();
+        user.setUsername(username);
+        return mongoTemplate.insert(user);
+    }
+}
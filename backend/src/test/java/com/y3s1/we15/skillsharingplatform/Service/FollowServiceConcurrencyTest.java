@@ -0,0 +1,209 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Config.ReadOnlyAwareMongoTemplate;
+import com.y3s1.we15.skillsharingplatform.Models.FollowEdge;
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Follows and unfollows from many threads against a real MongoDB and checks
+ * that edges are never duplicated and that followerCount and followingCount
+ * always match the edges, even while stale copies of the user are saved.
+ * Needs a disposable database, e.g.
+ * MONGODB_TEST_URI=mongodb://localhost:27017; set
+ * MONGODB_TEST_TRANSACTIONS=true as well when it is a replica set to also
+ * run the transactional variant.
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class FollowServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static FollowService followService;
+    private static FollowService transactionalFollowService;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        MongoDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, "skillsharing_test_" + System.nanoTime());
+        mongoTemplate = new ReadOnlyAwareMongoTemplate(factory);
+        mongoTemplate.indexOps(FollowEdge.class).ensureIndex(new Index()
+                .on("followerId", Sort.Direction.ASC)
+                .on("followeeId", Sort.Direction.ASC)
+                .unique());
+        followService = new FollowService(mongoTemplate);
+        transactionalFollowService = new FollowService(mongoTemplate, new MongoTransactionManager(factory));
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void concurrentFollowsOfOneUserAreAllCounted() throws Exception {
+        followManyAtOnce(followService);
+    }
+
+    @Test
+    void repeatedFollowBySameUserCreatesOneEdge() throws Exception {
+        repeatFollowAtOnce(followService);
+    }
+
+    @Test
+    void interleavedFollowAndUnfollowKeepCountsEqualToEdges() throws Exception {
+        churn(followService);
+    }
+
+    @Test
+    void staleProfileSavesDoNotUndoConcurrentFollows() throws Exception {
+        UserModel celebrity = newUser();
+        List<UserModel> fans = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fans.add(newUser());
+        }
+        // A profile edit that read the user before any of the follows below
+        UserModel staleCopy = stored(celebrity);
+
+        runConcurrently(fans.size() * 2, i -> {
+            if (i % 2 == 0) {
+                return followService.follow(fans.get(i / 2).getId(), celebrity.getId());
+            }
+            staleCopy.setFirstName("Edit " + i);
+            mongoTemplate.save(staleCopy);
+            return true;
+        });
+
+        assertEquals(fans.size(), stored(celebrity).getFollowerCount());
+        assertConsistent(celebrity);
+    }
+
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_TRANSACTIONS", matches = "true")
+    void transactionalFollowsStayConsistent() throws Exception {
+        followManyAtOnce(transactionalFollowService);
+        repeatFollowAtOnce(transactionalFollowService);
+        churn(transactionalFollowService);
+    }
+
+    private void followManyAtOnce(FollowService service) throws Exception {
+        UserModel celebrity = newUser();
+        List<UserModel> fans = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            fans.add(newUser());
+        }
+
+        List<Boolean> created = runConcurrently(fans.size(), i -> service.follow(fans.get(i).getId(), celebrity.getId()));
+
+        assertEquals(fans.size(), created.stream().filter(Boolean::booleanValue).count());
+        assertConsistent(celebrity);
+        for (UserModel fan : fans) {
+            assertConsistent(fan);
+        }
+    }
+
+    private void repeatFollowAtOnce(FollowService service) throws Exception {
+        UserModel follower = newUser();
+        UserModel followee = newUser();
+
+        List<Boolean> created = runConcurrently(100, i -> service.follow(follower.getId(), followee.getId()));
+
+        assertEquals(1, created.stream().filter(Boolean::booleanValue).count());
+        assertEquals(1, stored(followee).getFollowerCount());
+        assertConsistent(follower);
+        assertConsistent(followee);
+    }
+
+    private void churn(FollowService service) throws Exception {
+        UserModel followee = newUser();
+        List<UserModel> followers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            followers.add(newUser());
+        }
+
+        // Each follower follows, unfollows and follows again, in no particular order
+        runConcurrently(followers.size() * 3, i -> {
+            String followerId = followers.get(i % followers.size()).getId();
+            return i / followers.size() == 1
+                    ? service.unfollow(followerId, followee.getId())
+                    : service.follow(followerId, followee.getId());
+        });
+
+        assertConsistent(followee);
+        for (UserModel follower : followers) {
+            assertConsistent(follower);
+        }
+    }
+
+    private UserModel newUser() {
+        UserModel user = new UserModel();
+        user.setUsername("user-" + System.nanoTime());
+        return mongoTemplate.insert(user);
+    }
+
+    private UserModel stored(UserModel user) {
+        return mongoTemplate.findById(user.getId(), UserModel.class);
+    }
+
+    private void assertConsistent(UserModel user) {
+        UserModel stored = stored(user);
+        assertEquals(mongoTemplate.count(new Query(Criteria.where("followeeId").is(user.getId())), FollowEdge.class),
+                stored.getFollowerCount(), "followerCount of " + user.getId());
+        assertEquals(mongoTemplate.count(new Query(Criteria.where("followerId").is(user.getId())), FollowEdge.class),
+                stored.getFollowingCount(), "followingCount of " + user.getId());
+    }
+
+    private interface Task {
+        Boolean run(int i) throws Exception;
+    }
+
+    private List<Boolean> runConcurrently(int tasks, Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                Callable<Boolean> call = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(pool.submit(call));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
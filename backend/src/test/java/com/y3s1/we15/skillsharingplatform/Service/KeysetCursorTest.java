@@ -0,0 +1,32 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsTimestampAndId() {
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(time, "abc").encode());
+        assertEquals(time, cursor.getCreatedAt());
+        assertEquals("abc", cursor.getId());
+    }
+
+    @Test
+    void roundTripsMissingTimestamp() {
+        KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(null, "abc").encode());
+        assertNull(cursor.getCreatedAt());
+        assertEquals("abc", cursor.getId());
+    }
+
+    @Test
+    void rejectsForeignTokens() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    }
+}
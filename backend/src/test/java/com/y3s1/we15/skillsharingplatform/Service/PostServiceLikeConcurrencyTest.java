@@ -0,0 +1,151 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Models.LikeToggleResult;
+import com.y3s1.we15.skillsharingplatform.Models.Post;
+import com.y3s1.we15.skillsharingplatform.Repositories.PostRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers PostService.toggleLike from many threads against a real MongoDB and
+ * checks that the flushed likeCount ends up matching likedUserIds.
+ * Needs a disposable database, e.g. MONGODB_TEST_URI=mongodb://localhost:27017
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class PostServiceLikeConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static LikeCounterService likeCounterService;
+    private static PostService postService;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(client, "skillsharing_test_" + System.nanoTime());
+        PostRepository postRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(PostRepository.class);
+        PostCache postCache = new PostCache(postRepository, mongoTemplate, 1 << 20, 1000);
+        CollectionVersions collectionVersions = new CollectionVersions();
+        likeCounterService = new LikeCounterService(mongoTemplate, postCache, collectionVersions);
+        postService = new PostService(postRepository, mongoTemplate, likeCounterService,
+                new PostSearchIndex(mongoTemplate), new TimelineService(mongoTemplate, new FollowService(mongoTemplate)),
+                postCache, collectionVersions, new CascadeDeleteService(mongoTemplate));
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void concurrentLikesFromDistinctUsersAreAllCounted() throws Exception {
+        Post post = mongoTemplate.insert(new Post());
+        int users = 200;
+
+        List<LikeToggleResult> results = runConcurrently(users, i -> postService.toggleLike(post.getId(), "user-" + i));
+
+        results.forEach(result -> assertTrue(result.isLiked()));
+        assertConsistent(post.getId(), users);
+    }
+
+    @Test
+    void concurrentTogglesBySameUserNeverDuplicateOrDrift() throws Exception {
+        Post post = mongoTemplate.insert(new Post());
+
+        // An even number of toggles by one user must leave the post unliked
+        runConcurrently(100, i -> postService.toggleLike(post.getId(), "same-user"));
+
+        assertConsistent(post.getId(), 0);
+    }
+
+    @Test
+    void interleavedTogglesKeepCountEqualToMembership() throws Exception {
+        Post post = mongoTemplate.insert(new Post());
+        int users = 40;
+
+        // Every user toggles three times: like, unlike, like
+        runConcurrently(users * 3, i -> postService.toggleLike(post.getId(), "user-" + (i % users)));
+
+        assertConsistent(post.getId(), users);
+    }
+
+    @Test
+    void unflushedLikesAreVisibleOnTheSinglePostRead() {
+        Post post = mongoTemplate.insert(new Post());
+
+        postService.toggleLike(post.getId(), "user-1");
+        postService.toggleLike(post.getId(), "user-2");
+
+        assertEquals(2, postService.getPostWithPendingLikes(post.getId()).get().getLikeCount());
+        // The stored (and cached) post only catches up on flush
+        assertEquals(0, postService.getPostById(post.getId()).get().getLikeCount());
+        likeCounterService.flush();
+        assertEquals(2, postService.getPostWithPendingLikes(post.getId()).get().getLikeCount());
+    }
+
+    @Test
+    void togglingMissingPostReturnsNull() {
+        assertNull(postService.toggleLike("000000000000000000000000", "user-1"));
+    }
+
+    private void assertConsistent(String postId, int expectedLikes) {
+        // likeCount is written behind, so push pending deltas before comparing
+        likeCounterService.flush();
+        Post stored = mongoTemplate.findById(postId, Post.class);
+        assertEquals(expectedLikes, stored.getLikeCount());
+        assertEquals(expectedLikes, stored.getLikedUserIds().size());
+        assertEquals(expectedLikes, new HashSet<>(stored.getLikedUserIds()).size(), "duplicate like entries");
+        assertFalse(stored.getLikeCount() < 0);
+    }
+
+    private interface Task {
+        LikeToggleResult run(int i) throws Exception;
+    }
+
+    private List<LikeToggleResult> runConcurrently(int tasks, Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<LikeToggleResult>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                Callable<LikeToggleResult> call = () -> {
+                    start.await();
+                    return task.run(index);
+                };
+                futures.add(pool.submit(call));
+            }
+            start.countDown();
+            List<LikeToggleResult> results = new ArrayList<>();
+            for (Future<LikeToggleResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
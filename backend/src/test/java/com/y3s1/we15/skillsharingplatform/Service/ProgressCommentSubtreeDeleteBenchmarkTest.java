@@ -0,0 +1,116 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Models.Progress;
+import com.y3s1.we15.skillsharingplatform.Models.ProgressComment;
+import com.y3s1.we15.skillsharingplatform.Repositories.ProgressCommentRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Logs how long deleteComment takes to remove a 10k-reply progress comment
+ * thread with one deleteMany, next to the old approach of one delete per
+ * reply. A timing run, not a correctness check (ProgressCommentSubtreeDeleteTest
+ * covers that), so it only runs when asked for, e.g.
+ * RUN_BENCHMARKS=true MONGODB_TEST_URI=mongodb://localhost:27017 mvn test -Dtest=ProgressCommentSubtreeDeleteBenchmarkTest
+ */
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "RUN_BENCHMARKS", matches = "true")
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class ProgressCommentSubtreeDeleteBenchmarkTest {
+    private static final Logger logger = LoggerFactory.getLogger(ProgressCommentSubtreeDeleteBenchmarkTest.class);
+
+    private static final int REPLIES = 10_000;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ProgressCommentService progressCommentService;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(client, "skillsharing_test_" + System.nanoTime());
+        ProgressCommentRepository repository =
+                new MongoRepositoryFactory(mongoTemplate).getRepository(ProgressCommentRepository.class);
+        progressCommentService = new ProgressCommentService(repository, mongoTemplate, new CollectionVersions());
+        mongoTemplate.indexOps(ProgressComment.class).ensureIndex(new Index().on("ancestorIds", Sort.Direction.ASC));
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void compareSubtreeDeleteWithPerReplyDeletes() {
+        Progress progress = mongoTemplate.insert(new Progress());
+
+        ProgressComment root = progressCommentService.createComment(comment(progress, "root"));
+        insertThread(progress, root, REPLIES, new Random(42));
+        long started = System.nanoTime();
+        progressCommentService.deleteComment(root.getId());
+        long subtreeMs = (System.nanoTime() - started) / 1_000_000;
+
+        // The same thread removed the way deleteComment used to: one round trip per reply
+        ProgressComment baselineRoot = progressCommentService.createComment(comment(progress, "baseline root"));
+        List<ProgressComment> baseline = insertThread(progress, baselineRoot, REPLIES, new Random(42));
+        started = System.nanoTime();
+        for (ProgressComment reply : baseline) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(reply.getId())), ProgressComment.class);
+        }
+        long perReplyMs = (System.nanoTime() - started) / 1_000_000;
+
+        logger.info("Deleted a " + REPLIES + "-reply thread in " + subtreeMs
+                + " ms with one deleteMany vs " + perReplyMs + " ms with one delete per reply");
+    }
+
+    private static ProgressComment comment(Progress progress, String content) {
+        return new ProgressComment(progress.getId(), "user-1", "Test User", content);
+    }
+
+    // Each reply answers a random earlier comment in the thread, so depths vary
+    private static List<ProgressComment> insertThread(Progress progress, ProgressComment root, int count, Random random) {
+        List<ProgressComment> nodes = new ArrayList<>();
+        nodes.add(root);
+        List<ProgressComment> replies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProgressComment parent = nodes.get(random.nextInt(nodes.size()));
+            ProgressComment reply = comment(progress, "reply " + i);
+            reply.setId(new ObjectId().toHexString());
+            reply.setParentCommentId(parent.getId());
+            reply.setRootId(root.getId());
+            List<String> path = new ArrayList<>(parent.getAncestorIds());
+            path.add(parent.getId());
+            reply.setAncestorIds(path);
+            reply.setDepth(path.size());
+            nodes.add(reply);
+            replies.add(reply);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProgressComment.class);
+        bulk.insert(replies);
+        bulk.execute();
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(progress.getId())),
+                new Update().inc("commentCount", count), Progress.class);
+        return replies;
+    }
+}
@@ -0,0 +1,136 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.y3s1.we15.skillsharingplatform.Models.Progress;
+import com.y3s1.we15.skillsharingplatform.Models.ProgressComment;
+import com.y3s1.we15.skillsharingplatform.Repositories.ProgressCommentRepository;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deletes a 10k-reply progress comment thread against a real MongoDB and
+ * checks that the subtree and nothing else is gone and that commentCount
+ * moved once.
+ * Needs a disposable database, e.g. MONGODB_TEST_URI=mongodb://localhost:27017
+ */
+@EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+class ProgressCommentSubtreeDeleteTest {
+
+    private static final int REPLIES = 10_000;
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static ProgressCommentService progressCommentService;
+
+    @BeforeAll
+    static void connect() {
+        client = MongoClients.create(System.getenv("MONGODB_TEST_URI"));
+        mongoTemplate = new MongoTemplate(client, "skillsharing_test_" + System.nanoTime());
+        ProgressCommentRepository repository =
+                new MongoRepositoryFactory(mongoTemplate).getRepository(ProgressCommentRepository.class);
+        progressCommentService = new ProgressCommentService(repository, mongoTemplate, new CollectionVersions());
+        mongoTemplate.indexOps(ProgressComment.class).ensureIndex(new Index().on("ancestorIds", Sort.Direction.ASC));
+    }
+
+    @AfterAll
+    static void dropDatabase() {
+        mongoTemplate.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    void deletingRootRemovesWholeTenThousandReplyThread() {
+        Progress progress = mongoTemplate.insert(new Progress());
+        ProgressComment root = progressCommentService.createComment(comment(progress, "root"));
+        ProgressComment survivor = progressCommentService.createComment(comment(progress, "other thread"));
+        insertThread(progress, root, REPLIES, new Random(42));
+
+        progressCommentService.deleteComment(root.getId());
+
+        assertEquals(0, mongoTemplate.count(new Query(Criteria.where("rootId").is(root.getId())), ProgressComment.class));
+        assertTrue(mongoTemplate.exists(new Query(Criteria.where("_id").is(survivor.getId())), ProgressComment.class));
+        assertEquals(1, mongoTemplate.findById(progress.getId(), Progress.class).getCommentCount());
+    }
+
+    @Test
+    void deletingMidThreadReplyKeepsAncestorsAndSiblings() {
+        Progress progress = mongoTemplate.insert(new Progress());
+        ProgressComment root = progressCommentService.createComment(comment(progress, "root"));
+        List<ProgressComment> replies = insertThread(progress, root, 2_000, new Random(7));
+
+        ProgressComment target = replies.get(10);
+        long descendants = replies.stream().filter(reply -> reply.getAncestorIds().contains(target.getId())).count();
+
+        progressCommentService.deleteComment(target.getId());
+
+        long remaining = mongoTemplate.count(new Query(Criteria.where("rootId").is(root.getId())), ProgressComment.class);
+        assertEquals(1 + replies.size() - 1 - descendants, remaining);
+        assertEquals(remaining, mongoTemplate.findById(progress.getId(), Progress.class).getCommentCount());
+        for (String ancestorId : target.getAncestorIds()) {
+            assertTrue(mongoTemplate.exists(new Query(Criteria.where("_id").is(ancestorId)), ProgressComment.class));
+        }
+    }
+
+    @Test
+    void replyToDeletedCommentIsRejected() {
+        Progress progress = mongoTemplate.insert(new Progress());
+        ProgressComment root = progressCommentService.createComment(comment(progress, "root"));
+        progressCommentService.deleteComment(root.getId());
+
+        ProgressComment reply = comment(progress, "late reply");
+        reply.setParentCommentId(root.getId());
+
+        assertNull(progressCommentService.createReply(reply));
+        assertEquals(0, mongoTemplate.findById(progress.getId(), Progress.class).getCommentCount());
+    }
+
+    private static ProgressComment comment(Progress progress, String content) {
+        return new ProgressComment(progress.getId(), "user-1", "Test User", content);
+    }
+
+    // Each reply answers a random earlier comment in the thread, so depths vary
+    private static List<ProgressComment> insertThread(Progress progress, ProgressComment root, int count, Random random) {
+        List<ProgressComment> nodes = new ArrayList<>();
+        nodes.add(root);
+        List<ProgressComment> replies = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ProgressComment parent = nodes.get(random.nextInt(nodes.size()));
+            ProgressComment reply = comment(progress, "reply " + i);
+            reply.setId(new ObjectId().toHexString());
+            reply.setParentCommentId(parent.getId());
+            reply.setRootId(root.getId());
+            List<String> path = new ArrayList<>(parent.getAncestorIds());
+            path.add(parent.getId());
+            reply.setAncestorIds(path);
+            reply.setDepth(path.size());
+            nodes.add(reply);
+            replies.add(reply);
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProgressComment.class);
+        bulk.insert(replies);
+        bulk.execute();
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(progress.getId())),
+                new Update().inc("commentCount", count), Progress.class);
+        return replies;
+    }
+}
@@ -0,0 +1,40 @@
+package com.y3s1.we15.skillsharingplatform.Service;
+
+import com.y3s1.we15.skillsharingplatform.Models.UserModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserSearchIndexTest {
+
+    // Only rebuild() reads from Mongo, so the index works without one here
+    private final UserSearchIndex index = new UserSearchIndex(null);
+
+    @Test
+    void shortTermsMatchInsideNames() {
+        index.index(user("1", "johnny", "John", "Doe"));
+        index.index(user("2", "mary", "Mary", "Smith"));
+
+        assertEquals(List.of("1"), index.search("oh", 0, 10).getUserIds());
+        assertEquals(List.of("2"), index.search("mi", 0, 10).getUserIds());
+    }
+
+    @Test
+    void prefixesStillOutrankMatchesInsideNames() {
+        index.index(user("1", "bohdan", "Bohdan", "Ivanov"));
+        index.index(user("2", "ohara", "Sean", "Ohara"));
+
+        assertEquals(List.of("2", "1"), index.search("oh", 0, 10).getUserIds());
+    }
+
+    private static UserModel user(String id, String username, String firstName, String lastName) {
+        UserModel user = new UserModel();
+        user.setId(id);
+        user.setUsername(username);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return user;
+    }
+}
@@ -14,6 +14,8 @@ const FollowList = ({ type, userId: propUserId }) => {
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [count, setCount] = useState(0);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [currentUserId, setCurrentUserId] = useState('');
   const [followingIds, setFollowingIds] = useState([]);
   const [showLoginModal, setShowLoginModal] = useState(false);
@@ -39,7 +41,6 @@ const FollowList = ({ type, userId: propUserId }) => {
     const loggedInUserId = localStorage.getItem('userId');
     if (loggedInUserId) {
       setCurrentUserId(loggedInUserId);
-      fetchFollowingIds(loggedInUserId);
     }
     
     if (userId) {
@@ -47,13 +48,14 @@ const FollowList = ({ type, userId: propUserId }) => {
     }
   }, [userId, type]);
 
-  const fetchFollowingIds = async (loggedInUserId) => {
+  // Marks which of the listed users the logged-in user follows
+  const fetchFollowingIds = async (listedUsers) => {
+    const loggedInUserId = localStorage.getItem('userId');
+    const ids = listedUsers.map(user => user.id);
+    if (!loggedInUserId || ids.length === 0) return;
     try {
-      const response = await apiService.getFollowing(loggedInUserId);
-      if (response && response.following) {
-        const ids = response.following.map(user => user.id);
-        setFollowingIds(ids);
-      }
+      const followed = await apiService.getFollowedAmong(loggedInUserId, ids);
+      setFollowingIds(prev => [...prev.filter(id => !ids.includes(id)), ...followed]);
     } catch (err) {
       console.error('Error fetching following IDs:', err);
     }
@@ -72,7 +74,9 @@ const FollowList = ({ type, userId: propUserId }) => {
       
       if (response) {
         setUsers(response[type] || []);
+        fetchFollowingIds(response[type] || []);
         setCount(response.count || 0);
+        setNextCursor(response.nextCursor || null);
       }
     } catch (err) {
       console.error(`Error fetching ${type}:`, err);
@@ -80,11 +84,30 @@ const FollowList = ({ type, userId: propUserId }) => {
       toast.error(`Failed to load ${type}. Please try again later.`);
       setUsers([]);
       setCount(0);
+      setNextCursor(null);
     } finally {
       setLoading(false);
     }
   };
 
+  const fetchMoreUsers = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const response = type === 'followers'
+        ? await apiService.getFollowers(userId, nextCursor)
+        : await apiService.getFollowing(userId, nextCursor);
+      setUsers(prev => [...prev, ...(response[type] || [])]);
+      fetchFollowingIds(response[type] || []);
+      setNextCursor(response.nextCursor || null);
+    } catch (err) {
+      console.error(`Error fetching more ${type}:`, err);
+      toast.error(`Failed to load more ${type}.`);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleFollow = async (userToFollowId, userName) => {
     // Set loading state for this specific user
     setFollowLoading(prev => ({ ...prev, [userToFollowId]: true }));
@@ -429,6 +452,17 @@ const FollowList = ({ type, userId: propUserId }) => {
                   ))}
                 </ul>
               )}
+              {nextCursor && (
+                <div className="p-4 text-center border-t border-gray-100">
+                  <button
+                    onClick={fetchMoreUsers}
+                    disabled={loadingMore}
+                    className="px-4 py-2 text-sm font-medium text-indigo-600 hover:text-indigo-800 disabled:opacity-50"
+                  >
+                    {loadingMore ? 'Loading...' : 'Load more'}
+                  </button>
+                </div>
+              )}
             </div>
           </div>
         </main>
@@ -14,8 +14,7 @@ const UserSearch = () => {
   const [loading, setLoading] = useState(true);
   const [currentPage, setCurrentPage] = useState(0);
   const [pageSize] = useState(10); // Fixed page size of 10
-  // Force totalUsers to 23 as per your database size
-  const [totalUsers, setTotalUsers] = useState(23);
+  const [totalUsers, setTotalUsers] = useState(0);
   const [currentUserId, setCurrentUserId] = useState('');
   const [followingIds, setFollowingIds] = useState([]);
   const [message, setMessage] = useState('');
@@ -31,12 +30,8 @@ const UserSearch = () => {
     const userId = localStorage.getItem('userId');
     if (userId) {
       setCurrentUserId(userId);
-      fetchFollowing(userId);
     }
     
-    // Always set the total users to 23 (known database size)
-    setTotalUsers(23);
-    
     // Fetch all users on component mount
     fetchAllUsers();
     
@@ -44,6 +39,11 @@ const UserSearch = () => {
     console.log("Component mounted, initial page:", currentPage);
   }, []);
 
+  useEffect(() => {
+    // Follow state is only needed for the users currently listed
+    fetchFollowing(users);
+  }, [users]);
+
   useEffect(() => {
     // Log page changes for debugging
     console.log("Page changed to:", currentPage);
@@ -68,10 +68,7 @@ const UserSearch = () => {
       
       if (response.users && Array.isArray(response.users)) {
         setUsers(response.users);
-        
-        // Use the hardcoded total of 23 users (3 pages with 10 users per page)
-        // This ensures pagination works consistently regardless of backend response
-        setTotalUsers(23);
+        setTotalUsers(response.totalItems || 0);
         
         if (response.users.length === 0 && currentPage > 0) {
           // If we're on a page with no results, go back to first page
@@ -79,7 +76,7 @@ const UserSearch = () => {
         }
       } else {
         setUsers([]);
-        setTotalUsers(23); // Keep the default total even if no results
+        setTotalUsers(0);
         
         if (currentPage > 0) {
           // If no results but we're not on page 0, go back to page 0
@@ -92,20 +89,20 @@ const UserSearch = () => {
       console.error('Error fetching all users:', error);
       toast.error('Failed to load users. Please try again.');
       setUsers([]);
-      setTotalUsers(23); // Maintain consistent pagination even on error
+      setTotalUsers(0);
     } finally {
       setLoading(false);
     }
   };
 
-  const fetchFollowing = async (userId) => {
+  // Marks which of the users on this page the current user follows
+  const fetchFollowing = async (pageUsers) => {
+    const userId = localStorage.getItem('userId');
+    const ids = pageUsers.map(user => user.id);
+    if (!userId || ids.length === 0) return;
     try {
-      const response = await apiService.getFollowing(userId);
-      if (response && response.following) {
-        const followingUserIds = response.following.map(user => user.id);
-        setFollowingIds(followingUserIds);
-        console.log(`Following ${followingUserIds.length} users`);
-      }
+      const followed = await apiService.getFollowedAmong(userId, ids);
+      setFollowingIds(prev => [...prev.filter(id => !ids.includes(id)), ...followed]);
     } catch (error) {
       console.error('Error fetching following:', error);
     }
@@ -123,19 +120,7 @@ const UserSearch = () => {
         setUsers(response.users);
         
         if (response.users.length > 0) {
-          // If we have search results, calculate total from response
-          // but constrain it to make sense with current page
-          const totalSearchResults = Math.max(
-            response.users.length + (currentPage * pageSize),
-            response.users.length === pageSize ? 
-              // If we got a full page, there might be more
-              (currentPage + 1) * pageSize + 1 : 
-              // Otherwise this is the final count
-              response.users.length + (currentPage * pageSize)
-          );
-          
-          setTotalUsers(totalSearchResults);
-          console.log(`Search results total: ${totalSearchResults}`);
+          setTotalUsers(response.totalItems || 0);
         } else {
           if (currentPage > 0) {
             // If we're on a page beyond the first and get no results,
@@ -613,7 +598,7 @@ const UserSearch = () => {
                       <FaChevronLeft className="mr-1" /> <span>Previous</span>
                     </button>
                     
-                    {/* Show all pages up to 3 with hardcoded total of 23 users */}
+                    {/* One button per page of results */}
                     <div className="hidden md:flex space-x-1">
                       {[...Array(totalPages).keys()].map(num => (
                         <button
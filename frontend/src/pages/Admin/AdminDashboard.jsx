@@ -77,7 +77,7 @@ const AdminDashboard = () => {
       const progressData = await apiService.getAllProgress();
       
       const commentsPromises = postsData.map(post => 
-        apiService.getCommentsByPost(post.id)
+        apiService.getAllCommentsByPost(post.id)
           .catch(() => [])
       );
       const allCommentsArrays = await Promise.all(commentsPromises);
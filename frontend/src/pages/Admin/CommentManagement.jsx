@@ -141,7 +141,7 @@ const CommentManagement = () => {
           debugLog(`Fetching comments for progress ID: ${progress.id}`);
           
           // Make direct API call with JWT token (handled by interceptor)
-          const progressComments = await apiService.getProgressComments(progress.id);
+          const progressComments = await apiService.getAllProgressComments(progress.id);
           
           // Log raw response for debugging
           debugLog(`Raw response for progress ${progress.id}:`, progressComments);
@@ -269,58 +269,47 @@ const CommentManagement = () => {
       // Collect comments from each post
       const postCommentPromises = allPosts.map(async (post) => {
         try {
-          const comments = await apiService.getCommentsByPost(post.id);
+          const comments = await apiService.getAllCommentsByPost(post.id);
           
-          // For each comment, fetch the user data
-          const commentPromises = (comments || []).map(async (comment) => {
+          // Resolve every comment author on this post; getUserSummaries batches past 100 ids
+          const authorIds = [...new Set((comments || []).map(comment => comment.userId).filter(Boolean))];
+          let authorsById = {};
+          if (authorIds.length > 0) {
             try {
-              // Get user data using userId
-              const userData = await apiService.getUserById(comment.userId);
-              
-              // Create user object using fetched data or defaults
-              const userObject = userData ? {
-                id: userData.id,
-                username: userData.username || "unknown",
-                firstName: userData.firstName || "",
-                lastName: userData.lastName || "",
-                profilePicture: userData.profilePicture || null
-              } : {
-                id: comment.userId,
-                username: "unknown",
-                firstName: "",
-                lastName: ""
-              };
-              
-              // Return enhanced comment with user data
-              return {
-                ...comment,
-                type: 'post',
-                contentType: 'Post',
-                postId: post.id,
-                parentTitle: post.title || `Post #${post.id}`,
-                user: userObject
-              };
+              const authors = await apiService.getUserSummaries(authorIds);
+              authorsById = Object.fromEntries((authors || []).map(author => [author.id, author]));
             } catch (userErr) {
-              debugLog(`Error fetching user data for post comment ${comment.id}:`, userErr);
-              // Return comment with default user data if user fetch fails
-              return {
-                ...comment,
-                type: 'post',
-                contentType: 'Post',
-                postId: post.id,
-                parentTitle: post.title || `Post #${post.id}`,
-                user: {
-                  id: comment.userId,
-                  username: "unknown",
-                  firstName: "",
-                  lastName: ""
-                }
-              };
+              debugLog(`Error fetching comment authors for post ${post.id}:`, userErr);
             }
+          }
+
+          return (comments || []).map(comment => {
+            const userData = authorsById[comment.userId];
+
+            // Create user object using fetched data or defaults
+            const userObject = userData ? {
+              id: userData.id,
+              username: userData.username || "unknown",
+              firstName: userData.firstName || "",
+              lastName: userData.lastName || "",
+              profilePicture: userData.profilePicture || null
+            } : {
+              id: comment.userId,
+              username: "unknown",
+              firstName: "",
+              lastName: ""
+            };
+
+            // Return enhanced comment with user data
+            return {
+              ...comment,
+              type: 'post',
+              contentType: 'Post',
+              postId: post.id,
+              parentTitle: post.title || `Post #${post.id}`,
+              user: userObject
+            };
           });
-          
-          // Wait for all user data fetches to complete
-          return await Promise.all(commentPromises);
         } catch (err) {
           debugLog(`Error fetching comments for post ${post.id}:`, err);
           return [];
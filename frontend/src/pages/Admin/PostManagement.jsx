@@ -116,10 +116,10 @@ const PostManagement = () => {
       const postsWithComments = await Promise.all(
         response.map(async (post) => {
           try {
-            const comments = await apiService.getCommentsByPost(post.id);
+            const page = await apiService.getCommentsByPost(post.id);
             return {
               ...post,
-              commentCount: comments?.length || 0
+              commentCount: page.total !== null ? page.total : page.items.length
             };
           } catch (err) {
             console.error(`Error fetching comments for post ${post.id}:`, err);
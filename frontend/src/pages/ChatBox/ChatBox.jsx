@@ -6,6 +6,9 @@ const ChatBox = ({ isOpen, onClose }) => {
   const [selectedUser, setSelectedUser] = useState(null);
   const [users, setUsers] = useState([]);
   const [recentChats, setRecentChats] = useState([]);
+  const [recentCursor, setRecentCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const extraPagesLoaded = useRef(false); // Whether pages past the first were appended by scrolling
   const [messages, setMessages] = useState([]);
   const [newMessage, setNewMessage] = useState('');
   const [searchQuery, setSearchQuery] = useState('');
@@ -89,7 +92,7 @@ const ChatBox = ({ isOpen, onClose }) => {
   // Fetches recent chats data without setting loading state
   const fetchRecentChatsData = async () => {
     try {
-      const data = await apiService.getRecentChats();
+      const { chats: data, nextCursor } = await apiService.getRecentChats();
       console.log("Recent chats fetched:", data);
       
       // Filter out any chats with yourself
@@ -102,20 +105,66 @@ const ChatBox = ({ isOpen, onClose }) => {
       if (filteredChats.length === 0) {
         // If still no recent chats, try a direct approach by listing users who have messages
         console.log("No recent chats found after filtering, trying fallback method");
+        setRecentCursor(null);
+        extraPagesLoaded.current = false;
         await generateRecentChatsFromMessages(false); // Don't set loading state
         return;
       }
       
-      setRecentChats(filteredChats);
-      setCachedRecentChats(filteredChats); // Cache the results
+      if (extraPagesLoaded.current) {
+        // Refresh the first page but keep the older chats already loaded by scrolling, and their cursor
+        setRecentChats(prev => {
+          const merged = [
+            ...filteredChats,
+            ...prev.filter(chat => !filteredChats.some(fresh => fresh.userId === chat.userId))
+          ];
+          setCachedRecentChats(merged);
+          return merged;
+        });
+      } else {
+        setRecentChats(filteredChats);
+        setCachedRecentChats(filteredChats); // Cache the results
+        setRecentCursor(nextCursor);
+      }
       
     } catch (error) {
       console.error('Error fetching recent chats:', error);
       console.log("Trying fallback method after error");
+      setRecentCursor(null);
+      extraPagesLoaded.current = false;
       await generateRecentChatsFromMessages(false); // Don't set loading state
     }
   };
   
+  // Appends the next page of recent chats, if there is one
+  const loadMoreRecentChats = async () => {
+    if (!recentCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const { chats, nextCursor } = await apiService.getRecentChats(recentCursor);
+      extraPagesLoaded.current = true;
+      setRecentChats(prev => {
+        const more = chats.filter(chat => chat && chat.userId !== currentUserId
+          && !prev.some(existing => existing.userId === chat.userId));
+        const merged = [...prev, ...more];
+        setCachedRecentChats(merged);
+        return merged;
+      });
+      setRecentCursor(nextCursor);
+    } catch (error) {
+      console.error('Error loading more recent chats:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  const handleListScroll = (e) => {
+    const { scrollTop, scrollHeight, clientHeight } = e.currentTarget;
+    if (view === 'recent' && scrollHeight - scrollTop - clientHeight < 80) {
+      loadMoreRecentChats();
+    }
+  };
+
   // The original fetchRecentChats function now just sets loading state and calls the data function
   const fetchRecentChats = async () => {
     setLoading(true);
@@ -295,6 +344,10 @@ const ChatBox = ({ isOpen, onClose }) => {
       console.log("Messages fetched:", data);
       setMessages(Array.isArray(data) ? data : []);
       scrollToBottom();
+      apiService.markChatRead(userId)
+        .then(() => setRecentChats(prev => prev.map(chat =>
+          chat.userId === userId ? { ...chat, unreadCount: 0, isRead: true } : chat)))
+        .catch(error => console.error('Error marking chat as read:', error));
     } catch (error) {
       console.error('Error fetching messages:', error);
       setMessages([]); // Set empty array on error
@@ -481,7 +534,7 @@ const ChatBox = ({ isOpen, onClose }) => {
 
   {/* User List / Recent Chats */}
   {!selectedUser && (
-    <div className="flex-1 overflow-y-auto">
+    <div className="flex-1 overflow-y-auto" onScroll={handleListScroll}>
       {loading ? (
         <div className="p-8 flex flex-col items-center justify-center">
           <div className="w-12 h-12 rounded-full border-4 border-blue-500 border-t-transparent animate-spin mb-4"></div>
@@ -492,39 +545,57 @@ const ChatBox = ({ isOpen, onClose }) => {
         </div>
       ) : view === 'recent' && hasRecentChats ? (
         // Recent Chats View
-        recentChats.map(chat => (
-          <div
-            key={chat.userId}
-            onClick={() => setSelectedUser(chat)}
-            className="p-3 border-b border-gray-100 cursor-pointer hover:bg-blue-50 transition-colors duration-150 flex items-center space-x-3"
-          >
-            <div className="relative">
-              <div className="w-10 h-10 rounded-full bg-gradient-to-r from-blue-500 to-blue-600 flex items-center justify-center text-white font-medium shadow-sm">
-                {chat.profilePicture ? (
-                  <img 
-                    src={chat.profilePicture} 
-                    alt={getDisplayName(chat)} 
-                    className="w-10 h-10 rounded-full object-cover"
-                  />
-                ) : (
-                  getUserInitials(chat)
-                )}
+        <>
+          {recentChats.map(chat => (
+            <div
+              key={chat.userId}
+              onClick={() => setSelectedUser(chat)}
+              className="p-3 border-b border-gray-100 cursor-pointer hover:bg-blue-50 transition-colors duration-150 flex items-center space-x-3"
+            >
+              <div className="relative">
+                <div className="w-10 h-10 rounded-full bg-gradient-to-r from-blue-500 to-blue-600 flex items-center justify-center text-white font-medium shadow-sm">
+                  {chat.profilePicture ? (
+                    <img 
+                      src={chat.profilePicture} 
+                      alt={getDisplayName(chat)} 
+                      className="w-10 h-10 rounded-full object-cover"
+                    />
+                  ) : (
+                    getUserInitials(chat)
+                  )}
+                </div>
+                <span className="absolute bottom-0 right-0 w-3 h-3 bg-green-500 rounded-full border-2 border-white"></span>
               </div>
-              <span className="absolute bottom-0 right-0 w-3 h-3 bg-green-500 rounded-full border-2 border-white"></span>
-            </div>
-            <div className="flex-1 min-w-0">
-              <div className="flex justify-between items-center">
-                <h3 className="font-medium text-gray-900 text-sm truncate">
-                  {getDisplayName(chat)}
-                </h3>
-                <span className="text-xs text-gray-500 whitespace-nowrap pl-2">
-                  {formatTimestamp(chat.timestamp)}
-                </span>
+              <div className="flex-1 min-w-0">
+                <div className="flex justify-between items-center">
+                  <h3 className="font-medium text-gray-900 text-sm truncate">
+                    {getDisplayName(chat)}
+                  </h3>
+                  <span className="text-xs text-gray-500 whitespace-nowrap pl-2">
+                    {formatTimestamp(chat.timestamp)}
+                  </span>
+                </div>
+                <div className="flex justify-between items-center">
+                  <p className="text-xs text-gray-500 truncate">{chat.lastMessage}</p>
+                  {chat.unreadCount > 0 && (
+                    <span className="ml-2 bg-blue-600 text-white text-xs rounded-full px-2 py-0.5">
+                      {chat.unreadCount}
+                    </span>
+                  )}
+                </div>
               </div>
-              <p className="text-xs text-gray-500 truncate">{chat.lastMessage}</p>
             </div>
-          </div>
-        ))
+          ))}
+          {recentCursor && (
+            <button
+              onClick={loadMoreRecentChats}
+              disabled={loadingMore}
+              className="w-full p-3 text-xs text-blue-600 hover:bg-blue-50 disabled:text-gray-400"
+            >
+              {loadingMore ? 'Loading older chats...' : 'Load older chats'}
+            </button>
+          )}
+        </>
       ) : view === 'all' && hasUsers ? (
         // All Users View
         users.map(user => (
@@ -654,10 +725,10 @@ const ChatBox = ({ isOpen, onClose }) => {
           messages.map(message => (
             <div
               key={message.id}
-              className={`flex ${message.sender?.id === currentUserId ? 'justify-end' : 'justify-start'}`}
+              className={`flex ${message.senderId === currentUserId ? 'justify-end' : 'justify-start'}`}
             >
               <div className={`max-w-[80%] rounded-lg p-3 shadow-sm ${
-                message.sender?.id === currentUserId
+                message.senderId === currentUserId
                   ? 'bg-blue-600 text-white rounded-br-none'
                   : 'bg-white text-gray-900 rounded-bl-none border border-gray-200'
               }`}>
@@ -671,23 +742,23 @@ const ChatBox = ({ isOpen, onClose }) => {
                         handleEditMessage(message.id, e.target.value);
                       }
                     }}
-                    className={`w-full bg-transparent border-none focus:outline-none ${message.sender?.id === currentUserId ? 'text-white placeholder-blue-200' : 'text-gray-900'}`}
+                    className={`w-full bg-transparent border-none focus:outline-none ${message.senderId === currentUserId ? 'text-white placeholder-blue-200' : 'text-gray-900'}`}
                     autoFocus
                   />
                 ) : (
                   <div className="relative group">
                     <p className="text-sm">{message.content}</p>
-                    {message.sender?.id === currentUserId && (
+                    {message.senderId === currentUserId && (
                       <div className="absolute -right-8 top-0 hidden group-hover:flex space-x-1">
                         <button
                           onClick={() => setEditingMessage(message.id)}
-                          className={`p-1 ${message.sender?.id === currentUserId ? 'text-blue-200 hover:text-white' : 'text-gray-400 hover:text-gray-600'}`}
+                          className={`p-1 ${message.senderId === currentUserId ? 'text-blue-200 hover:text-white' : 'text-gray-400 hover:text-gray-600'}`}
                         >
                           <FaEdit size={12} />
                         </button>
                         <button
                           onClick={() => handleDeleteMessage(message.id)}
-                          className={`p-1 ${message.sender?.id === currentUserId ? 'text-blue-200 hover:text-red-300' : 'text-gray-400 hover:text-red-600'}`}
+                          className={`p-1 ${message.senderId === currentUserId ? 'text-blue-200 hover:text-red-300' : 'text-gray-400 hover:text-red-600'}`}
                         >
                           <FaTrash size={12} />
                         </button>
@@ -695,7 +766,7 @@ const ChatBox = ({ isOpen, onClose }) => {
                     )}
                   </div>
                 )}
-                <span className={`text-xs mt-1 block ${message.sender?.id === currentUserId ? 'text-blue-200' : 'text-gray-400'}`}>
+                <span className={`text-xs mt-1 block ${message.senderId === currentUserId ? 'text-blue-200' : 'text-gray-400'}`}>
                   {new Date(message.createdAt).toLocaleTimeString([], { hour: '2-digit', minute: '2-digit' })}
                 </span>
               </div>
@@ -4,7 +4,6 @@ import { FaComment, FaHeart, FaRegHeart } from 'react-icons/fa';
 import apiService from '../../services/api';
 
 const PostCard = ({ post }) => {
-  const [commentCount, setCommentCount] = useState(0);
   const [likeCount, setLikeCount] = useState(post.likeCount || 0);
   const [likedByCurrentUser, setLikedByCurrentUser] = useState(false);
   const [mediaLoaded, setMediaLoaded] = useState(false);
@@ -85,31 +84,18 @@ const PostCard = ({ post }) => {
   }, []);
 
   useEffect(() => {
-    const fetchCommentCount = async () => {
-      try {
-        const comments = await apiService.getCommentsByPost(post.id);
-        setCommentCount(comments.length);
-      } catch (err) {
-        console.error('Failed to fetch comment count:', err);
-      }
-    };
-
     const fetchLikeStatus = async () => {
       try {
         const isLoggedIn = localStorage.getItem('isLoggedIn') === 'true';
         if (!isLoggedIn) return;
         
-        const userId = localStorage.getItem('userId');
-        if (userId) {
-          setLikedByCurrentUser(post.likedUserIds?.includes(userId));
-        }
+        setLikedByCurrentUser(!!post.likedByCurrentUser);
       } catch (err) {
         console.error('Failed to check like status:', err);
       }
     };
 
     if (post?.id) {
-      fetchCommentCount();
       fetchLikeStatus();
     }
   }, [post]);
@@ -250,7 +236,7 @@ const PostCard = ({ post }) => {
           </button>
           <div className="flex items-center gap-1.5 text-gray-500">
             <FaComment />
-            <span>{commentCount}</span>
+            <span>{post.commentCount || 0}</span>
           </div>
         </div>
 
@@ -49,30 +49,39 @@ const PostLikeComment = ({ postId, isLoggedIn, isPostOwner, initialLikeCount = 0
   const [showConfirm, setShowConfirm] = useState(false);
   const [commentToDelete, setCommentToDelete] = useState(null);
   const [userCache, setUserCache] = useState({});
+  const [nextCursor, setNextCursor] = useState(null);
+  const [totalComments, setTotalComments] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
+  // Resolves the authors of these comments that are not cached yet, in one batch request
+  const loadAuthors = async (commentList) => {
+    const missing = [...new Set(commentList.map(comment => comment.userId).filter(Boolean))]
+      .filter(userId => !userCache[userId]);
+    if (missing.length === 0) return;
+    try {
+      const authors = await apiService.getUserSummaries(missing);
+      const found = Object.fromEntries((authors || []).map(author => [author.id, author]));
+      setUserCache(prev => {
+        const next = { ...prev };
+        missing.forEach(userId => {
+          next[userId] = found[userId] || { username: 'Unknown User' };
+        });
+        return next;
+      });
+    } catch (userErr) {
+      console.error('Error fetching comment authors:', userErr);
+    }
+  };
 
   useEffect(() => {
+    // First page only; later pages are appended on demand
     const fetchComments = async () => {
       try {
-        const commentsData = await apiService.getCommentsByPost(postId);
-        setComments(commentsData);
-        
-        // Fetch user details for each comment
-        const uniqueUserIds = [...new Set(commentsData.map(comment => comment.userId))];
-        const newUserCache = { ...userCache };
-        
-        for (const userId of uniqueUserIds) {
-          if (!newUserCache[userId]) {
-            try {
-              const userData = await apiService.getUserById(userId);
-              newUserCache[userId] = userData;
-            } catch (userErr) {
-              console.error(`Error fetching user ${userId}:`, userErr);
-              newUserCache[userId] = { username: 'Unknown User' };
-            }
-          }
-        }
-        
-        setUserCache(newUserCache);
+        const page = await apiService.getCommentsByPost(postId);
+        setComments(page.items);
+        setNextCursor(page.nextCursor);
+        setTotalComments(page.total);
+        loadAuthors(page.items);
       } catch (err) {
         console.error('Error fetching comments:', err);
       }
@@ -87,34 +96,33 @@ const PostLikeComment = ({ postId, isLoggedIn, isPostOwner, initialLikeCount = 0
     setLiked(initialLiked);
   }, [initialLikeCount, initialLiked]);
 
+  const loadMoreComments = async () => {
+    if (!nextCursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await apiService.getCommentsByPost(postId, nextCursor);
+      // A comment added on this page may already be shown at the end
+      setComments(prev => [...prev, ...page.items.filter(comment => !prev.some(existing => existing.id === comment.id))]);
+      setNextCursor(page.nextCursor);
+      if (page.total !== null) setTotalComments(page.total);
+      loadAuthors(page.items);
+    } catch (err) {
+      console.error('Error loading more comments:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleAddComment = async () => {
     if (!isLoggedIn) return navigate(`/login`, { state: { returnTo: `/posts/${postId}` } });
     if (!newComment.trim()) return setError('Comment cannot be empty');
     try {
-      await apiService.addComment({ postId, content: newComment });
+      const saved = await apiService.addComment({ postId, content: newComment });
       setNewComment('');
       setError('');
-      const data = await apiService.getCommentsByPost(postId);
-      setComments(data);
-      
-      // Update user cache for new comments
-      const newUserIds = data
-        .filter(comment => !userCache[comment.userId])
-        .map(comment => comment.userId);
-      
-      if (newUserIds.length > 0) {
-        const newUserCache = { ...userCache };
-        for (const userId of newUserIds) {
-          try {
-            const userData = await apiService.getUserById(userId);
-            newUserCache[userId] = userData;
-          } catch (userErr) {
-            console.error(`Error fetching user ${userId}:`, userErr);
-            newUserCache[userId] = { username: 'Unknown User' };
-          }
-        }
-        setUserCache(newUserCache);
-      }
+      setComments(prev => [...prev, saved]);
+      setTotalComments(prev => (prev !== null ? prev + 1 : prev));
+      loadAuthors([saved]);
     } catch (err) {
       console.error('Error adding comment:', err);
       setError('Failed to add comment.');
@@ -123,9 +131,8 @@ const PostLikeComment = ({ postId, isLoggedIn, isPostOwner, initialLikeCount = 0
 
   const handleUpdateComment = async (commentId, content) => {
     try {
-      await apiService.updateComment(commentId, { content });
-      const data = await apiService.getCommentsByPost(postId);
-      setComments(data);
+      const saved = await apiService.updateComment(commentId, { content });
+      setComments(prev => prev.map(comment => (comment.id === commentId ? { ...comment, ...saved } : comment)));
       setEditingComment(null);
     } catch (err) {
       console.error('Error updating comment:', err);
@@ -146,8 +153,8 @@ const PostLikeComment = ({ postId, isLoggedIn, isPostOwner, initialLikeCount = 0
   const handleDeleteComment = async () => {
     try {
       await apiService.deleteComment(commentToDelete);
-      const data = await apiService.getCommentsByPost(postId);
-      setComments(data);
+      setComments(prev => prev.filter(comment => comment.id !== commentToDelete));
+      setTotalComments(prev => (prev !== null ? Math.max(0, prev - 1) : prev));
       setShowConfirm(false);
       setCommentToDelete(null);
     } catch (err) {
@@ -242,7 +249,7 @@ const PostLikeComment = ({ postId, isLoggedIn, isPostOwner, initialLikeCount = 0
 
       <div className="mt-12">
         <h3 className="text-lg font-semibold text-gray-800 pb-3 border-b-2 border-indigo-200 flex items-center">
-          <FaComment className="mr-2 text-indigo-600" /> Comments ({comments.length})
+          <FaComment className="mr-2 text-indigo-600" /> Comments ({totalComments !== null ? totalComments : comments.length})
         </h3>
         
         {comments.length === 0 ? (
@@ -332,6 +339,15 @@ const PostLikeComment = ({ postId, isLoggedIn, isPostOwner, initialLikeCount = 0
                 )}
               </div>
             ))}
+            {nextCursor && (
+              <button
+                onClick={loadMoreComments}
+                disabled={loadingMore}
+                className="w-full py-2 text-sm text-indigo-700 bg-indigo-50 rounded-md hover:bg-indigo-100 disabled:opacity-50"
+              >
+                {loadingMore ? 'Loading...' : 'Load more comments'}
+              </button>
+            )}
           </div>
         )}
       </div>
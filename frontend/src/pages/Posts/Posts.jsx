@@ -14,28 +14,48 @@ const Posts = () => {
   const [error, setError] = useState(null);
   const [searchTerm, setSearchTerm] = useState('');
   const [selectedCategory, setSelectedCategory] = useState('');
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+
+  // One page of whichever listing is selected; the next page is fetched with the returned cursor
+  const fetchPage = useCallback((cursor) => {
+    if (selectedCategory) {
+      return apiService.getPostsByCategory(selectedCategory, cursor);
+    }
+    if (searchTerm) {
+      return apiService.searchPosts(searchTerm, cursor);
+    }
+    return apiService.getPostsPage(cursor);
+  }, [searchTerm, selectedCategory]);
 
   const fetchPosts = useCallback(async () => {
     try {
       setLoading(true);
       setError(null);
 
-      let data;
-      if (selectedCategory) {
-        data = await apiService.getPostsByCategory(selectedCategory);
-      } else if (searchTerm) {
-        data = await apiService.searchPosts(searchTerm);
-      } else {
-        data = await apiService.getAllPosts();
-      }
-
-      setPosts(Array.isArray(data) ? data : []);
+      const page = await fetchPage();
+      setPosts(page.items);
+      setNextCursor(page.nextCursor);
     } catch (err) {
       setError('Unable to load posts. Please try again later.');
     } finally {
       setLoading(false);
     }
-  }, [searchTerm, selectedCategory]);
+  }, [fetchPage]);
+
+  const loadMore = async () => {
+    if (!nextCursor || loadingMore) return;
+    try {
+      setLoadingMore(true);
+      const page = await fetchPage(nextCursor);
+      setPosts(prev => [...prev, ...page.items.filter(post => !prev.some(existing => existing.id === post.id))]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      setError('Unable to load more posts. Please try again later.');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
 
   useEffect(() => {
     fetchPosts();
@@ -94,6 +114,18 @@ const Posts = () => {
               </div>
             )}
           </div>
+
+          {nextCursor && (
+            <div className="flex justify-center mt-8">
+              <button
+                onClick={loadMore}
+                disabled={loadingMore}
+                className="px-6 py-2 bg-indigo-600 text-white rounded-lg hover:bg-indigo-700 disabled:bg-gray-400"
+              >
+                {loadingMore ? 'Loading...' : 'Load more posts'}
+              </button>
+            </div>
+          )}
         </div>
       </div>
       <Footer />
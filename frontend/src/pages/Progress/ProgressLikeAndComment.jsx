@@ -69,6 +69,9 @@ const getUserInitials = (user) => {
   }
 };
 
+// Replies requested with each top-level comment; the server caps this at 50
+const MAX_PREVIEW_REPLIES = 3;
+
 const ProgressLikeAndComment = ({ progress, onProgressUpdate }) => {
   const navigate = useNavigate();
   const currentUserId = localStorage.getItem('userId');
@@ -80,6 +83,9 @@ const ProgressLikeAndComment = ({ progress, onProgressUpdate }) => {
   const [editingComment, setEditingComment] = useState(null);
   const [editCommentText, setEditCommentText] = useState('');
   const [isLoadingComments, setIsLoadingComments] = useState(false);
+  const [commentsCursor, setCommentsCursor] = useState(null);
+  const [isLoadingMoreComments, setIsLoadingMoreComments] = useState(false);
+  const [unloadedReplies, setUnloadedReplies] = useState({});
   
   // State for comment replies
   const [commentReplies, setCommentReplies] = useState({});
@@ -108,60 +114,15 @@ const ProgressLikeAndComment = ({ progress, onProgressUpdate }) => {
     // Toggle expanded state
     setExpandedComments(prev => !prev);
     
-    // If expanding and comments not loaded yet, fetch them
+    // If expanding and comments not loaded yet, fetch the first page of them
     if (!expandedComments && comments.length === 0) {
       try {
         setIsLoadingComments(true);
-        console.log(`Fetching comments for progress ${progress.id}...`);
-        const commentData = await apiService.getProgressComments(progress.id);
-        console.log(`Received comments:`, commentData);
-        
-        // Store the comments in the state
-        setComments(commentData || []);
-        
-        // For each comment, check if it has replies and fetch them
-        let totalReplyCount = 0;
-        if (commentData && commentData.length > 0) {
-          const replyPromises = commentData.map(async (comment) => {
-            try {
-              console.log(`Fetching replies for comment ${comment.id}...`);
-              const replyData = await apiService.getCommentReplies(comment.id);
-              console.log(`Received replies for comment ${comment.id}:`, replyData);
-              
-              if (replyData && replyData.length > 0) {
-                totalReplyCount += replyData.length;
-                
-                // Store the replies in the state
-                setCommentReplies(prev => ({
-                  ...prev,
-                  [comment.id]: replyData
-                }));
-                
-                // Auto-expand replies that have content
-                setExpandedReplies(prev => ({
-                  ...prev,
-                  [comment.id]: true
-                }));
-              }
-              return replyData || [];
-            } catch (error) {
-              console.error(`Error fetching replies for comment ${comment.id}:`, error);
-              return [];
-            }
-          });
-          
-          // Wait for all reply requests to complete
-          await Promise.all(replyPromises);
-          
-          // Update the progress comment count to reflect the actual number of comments + replies
-          const totalCommentCount = commentData.length + totalReplyCount;
-          
-          // Update the progress via callback
-          onProgressUpdate({
-            ...progress,
-            commentCount: totalCommentCount
-          });
-        }
+        // Comments arrive with their first replies; longer threads are loaded when the reader asks
+        const page = await apiService.getProgressComments(progress.id, MAX_PREVIEW_REPLIES);
+        setComments(page.items);
+        setCommentsCursor(page.nextCursor);
+        storeReplyPreviews(page.items);
       } catch (error) {
         console.error('Error fetching comments:', error);
         toast.error('Failed to load comments. Please try again later.');
@@ -174,6 +135,62 @@ const ProgressLikeAndComment = ({ progress, onProgressUpdate }) => {
     }
   };
   
+  // Keep the preview replies that came with each comment and how many are still on the server
+  const storeReplyPreviews = (commentData) => {
+    const withReplies = commentData.filter(comment => (comment.replies || []).length > 0);
+    setCommentReplies(prev => ({
+      ...prev,
+      ...Object.fromEntries(withReplies.map(comment => [comment.id, comment.replies]))
+    }));
+    setExpandedReplies(prev => ({
+      ...prev,
+      ...Object.fromEntries(withReplies.map(comment => [comment.id, true]))
+    }));
+    setUnloadedReplies(prev => ({
+      ...prev,
+      ...Object.fromEntries(commentData.map(comment => [
+        comment.id,
+        Math.max(0, (comment.replyCount || 0) - (comment.replies || []).length)
+      ]))
+    }));
+  };
+  
+  // Append the next page of top-level comments
+  const loadMoreComments = async () => {
+    if (!commentsCursor || isLoadingMoreComments) return;
+    try {
+      setIsLoadingMoreComments(true);
+      const page = await apiService.getProgressComments(progress.id, MAX_PREVIEW_REPLIES, commentsCursor);
+      // A comment added while reading may already be at the end of the list
+      setComments(prev => [...prev, ...page.items.filter(comment => !prev.some(existing => existing.id === comment.id))]);
+      setCommentsCursor(page.nextCursor);
+      storeReplyPreviews(page.items);
+    } catch (error) {
+      console.error('Error loading more comments:', error);
+      toast.error('Failed to load more comments. Please try again later.');
+    } finally {
+      setIsLoadingMoreComments(false);
+    }
+  };
+  
+  // Load the rest of one long thread; the first entry is the comment itself
+  const loadFullThread = async (commentId) => {
+    try {
+      setLoadingReplies(prev => ({ ...prev, [commentId]: true }));
+      const thread = await apiService.getCommentThread(commentId);
+      setCommentReplies(prev => ({
+        ...prev,
+        [commentId]: (thread || []).filter(reply => reply.id !== commentId)
+      }));
+      setUnloadedReplies(prev => ({ ...prev, [commentId]: 0 }));
+    } catch (error) {
+      console.error('Error fetching replies:', error);
+      toast.error('Failed to load replies. Please try again later.');
+    } finally {
+      setLoadingReplies(prev => ({ ...prev, [commentId]: false }));
+    }
+  };
+  
   // Toggle replies for a comment
   const toggleReplies = async (commentId) => {
     // Toggle expanded state for replies
@@ -407,7 +424,7 @@ const ProgressLikeAndComment = ({ progress, onProgressUpdate }) => {
       
       if (isParentComment) {
         // This is a regular comment - count how many replies it has before removing it
-        const replyCount = commentReplies[commentToDelete.id]?.length || 0;
+        const replyCount = (commentReplies[commentToDelete.id]?.length || 0) + (unloadedReplies[commentToDelete.id] || 0);
         
         // Remove the comment from the comments state
         setComments(prev => prev.filter(comment => comment.id !== commentToDelete.id));
@@ -926,11 +943,30 @@ const ProgressLikeAndComment = ({ progress, onProgressUpdate }) => {
                             ) : (
                               !loadingReplies[comment.id] && <p className="text-xs text-gray-500 italic">No replies yet.</p>
                             )}
+                            
+                            {unloadedReplies[comment.id] > 0 && !loadingReplies[comment.id] && (
+                              <button
+                                onClick={() => loadFullThread(comment.id)}
+                                className="text-xs text-blue-600 hover:text-blue-800"
+                              >
+                                View {unloadedReplies[comment.id]} more {unloadedReplies[comment.id] === 1 ? 'reply' : 'replies'}
+                              </button>
+                            )}
                           </div>
                         )}
                       </div>
                     </div>
                   ))}
+                  
+                  {commentsCursor && (
+                    <button
+                      onClick={loadMoreComments}
+                      disabled={isLoadingMoreComments}
+                      className="text-sm text-blue-600 hover:text-blue-800 disabled:opacity-50"
+                    >
+                      {isLoadingMoreComments ? 'Loading...' : 'Load more comments'}
+                    </button>
+                  )}
                 </div>
               ) : (
                 <p className="text-sm text-gray-500">No comments yet. Be the first to comment!</p>
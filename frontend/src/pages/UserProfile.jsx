@@ -263,27 +263,7 @@ const UserProfile = () => {
         console.error("Direct follow status check failed:", directCheckError);
       }
       
-      // Method 2: Check user's following list
-      try {
-        const followingResponse = await apiService.getFollowing(currentUserId);
-        
-        if (followingResponse && followingResponse.following) {
-          // Check if userId exists in the following list
-          const isUserInFollowingList = followingResponse.following.some(user => 
-            (typeof user === 'object' && user.id === userId) || 
-            (typeof user === 'string' && user === userId)
-          );
-          
-          console.log(`Follow status from following list: ${isUserInFollowingList ? 'Following' : 'Not following'}`);
-          setIsFollowing(isUserInFollowingList);
-          storeFollowState(userId, isUserInFollowingList);
-          return;
-        }
-      } catch (followingError) {
-        console.error("Following list check failed:", followingError);
-      }
-      
-      // Method 3: Check if user is in followers list of target user
+      // Method 2: Check if user is in followers list of target user
       try {
         const followersResponse = await apiService.getFollowers(userId);
         
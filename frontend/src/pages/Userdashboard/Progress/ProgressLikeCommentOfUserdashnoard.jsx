@@ -4,6 +4,9 @@ import { Link, useNavigate } from "react-router-dom";
 import apiService from "../../../services/api";
 import Swal from 'sweetalert2';
 
+// Replies shipped with each top-level comment; longer threads are loaded on request
+const MAX_PREVIEW_REPLIES = 3;
+
 const ProgressLikeCommentOfUserdashnoard = ({ progress, onProgressUpdate }) => {
   const navigate = useNavigate();
   const userId = localStorage.getItem('userId');
@@ -19,6 +22,9 @@ const ProgressLikeCommentOfUserdashnoard = ({ progress, onProgressUpdate }) => {
   const [commentReplies, setCommentReplies] = useState({});
   const [isLoadingComments, setIsLoadingComments] = useState(false);
   const [loadingReplies, setLoadingReplies] = useState({});
+  const [commentsCursor, setCommentsCursor] = useState(null);
+  const [isLoadingMoreComments, setIsLoadingMoreComments] = useState(false);
+  const [unloadedReplies, setUnloadedReplies] = useState({});
   
   // Delete confirmation state
   const [showDeleteModal, setShowDeleteModal] = useState(false);
@@ -121,55 +127,17 @@ const ProgressLikeCommentOfUserdashnoard = ({ progress, onProgressUpdate }) => {
     if (!progress.comments || progress.comments.length === 0) {
       try {
         setIsLoadingComments(true);
-        const comments = await apiService.getProgressComments(progress.id);
-        
-        // Map the comments to ensure they have consistent field names
-        const mappedComments = comments ? comments.map(normalizeComment) : [];
+        // First page of top-level comments, each with its first replies
+        const page = await apiService.getProgressComments(progress.id, MAX_PREVIEW_REPLIES);
+        const mappedComments = page.items.map(normalizeComment);
+        setCommentsCursor(page.nextCursor);
+        storeReplyPreviews(page.items);
         
-        // Track the total number of comments including replies
-        let totalCommentCount = mappedComments.length;
-        
-        // Fetch replies for each comment
-        for (const comment of mappedComments) {
-          try {
-            const replies = await apiService.getCommentReplies(comment.id);
-            
-            if (replies && replies.length > 0) {
-              // Store normalized replies in state
-              const normalizedReplies = replies.map(normalizeComment);
-              setCommentReplies(prev => ({
-                ...prev,
-                [comment.id]: normalizedReplies
-              }));
-              
-              // Auto-expand comments that have replies
-              setExpandedReplies(prev => ({
-                ...prev,
-                [comment.id]: true
-              }));
-              
-              // Add to total comment count
-              totalCommentCount += normalizedReplies.length;
-            } else {
-              // Initialize empty replies array if none exist
-              setCommentReplies(prev => ({
-                ...prev,
-                [comment.id]: []
-              }));
-            }
-          } catch (replyError) {
-            console.error(`Error fetching replies for comment ${comment.id}:`, replyError);
-          }
-        }
-        
-        // Update the progress with fetched comments
-        const updatedProgress = {
+        // The server keeps commentCount, so only the loaded comments are stored here
+        onProgressUpdate({
           ...progress,
-          comments: mappedComments,
-          commentCount: totalCommentCount
-        };
-        
-        onProgressUpdate(updatedProgress);
+          comments: mappedComments
+        });
       } catch (error) {
         console.error('Error fetching comments:', error);
       } finally {
@@ -178,6 +146,65 @@ const ProgressLikeCommentOfUserdashnoard = ({ progress, onProgressUpdate }) => {
     }
   };
   
+  // Keep the preview replies that came with each comment and how many are still on the server
+  const storeReplyPreviews = (commentData) => {
+    const withReplies = commentData.filter(comment => (comment.replies || []).length > 0);
+    setCommentReplies(prev => ({
+      ...prev,
+      ...Object.fromEntries(commentData.map(comment => [comment.id, (comment.replies || []).map(normalizeComment)]))
+    }));
+    setExpandedReplies(prev => ({
+      ...prev,
+      ...Object.fromEntries(withReplies.map(comment => [comment.id, true]))
+    }));
+    setUnloadedReplies(prev => ({
+      ...prev,
+      ...Object.fromEntries(commentData.map(comment => [
+        comment.id,
+        Math.max(0, (comment.replyCount || 0) - (comment.replies || []).length)
+      ]))
+    }));
+  };
+  
+  // Append the next page of top-level comments
+  const loadMoreComments = async () => {
+    if (!commentsCursor || isLoadingMoreComments) return;
+    try {
+      setIsLoadingMoreComments(true);
+      const page = await apiService.getProgressComments(progress.id, MAX_PREVIEW_REPLIES, commentsCursor);
+      const loaded = progress.comments || [];
+      // A comment added while reading may already be at the end of the list
+      const fresh = page.items.filter(comment => !loaded.some(existing => existing.id === comment.id));
+      setCommentsCursor(page.nextCursor);
+      storeReplyPreviews(fresh);
+      onProgressUpdate({
+        ...progress,
+        comments: [...loaded, ...fresh.map(normalizeComment)]
+      });
+    } catch (error) {
+      console.error('Error loading more comments:', error);
+    } finally {
+      setIsLoadingMoreComments(false);
+    }
+  };
+  
+  // Load the rest of one long thread; the first entry is the comment itself
+  const loadFullThread = async (commentId) => {
+    try {
+      setLoadingReplies(prev => ({ ...prev, [commentId]: true }));
+      const thread = await apiService.getCommentThread(commentId);
+      setCommentReplies(prev => ({
+        ...prev,
+        [commentId]: (thread || []).filter(reply => reply.id !== commentId).map(normalizeComment)
+      }));
+      setUnloadedReplies(prev => ({ ...prev, [commentId]: 0 }));
+    } catch (error) {
+      console.error(`Error fetching replies for comment ${commentId}:`, error);
+    } finally {
+      setLoadingReplies(prev => ({ ...prev, [commentId]: false }));
+    }
+  };
+  
   // Handle comment input change
   const handleCommentChange = (text) => {
     setCommentText(text);
@@ -414,7 +441,7 @@ const ProgressLikeCommentOfUserdashnoard = ({ progress, onProgressUpdate }) => {
         
         // Update local state - remove comment and update counts
         const updatedComments = progress.comments.filter(c => c.id !== commentToDelete.id);
-        const repliesCount = commentReplies[commentToDelete.id]?.length || 0;
+        const repliesCount = (commentReplies[commentToDelete.id]?.length || 0) + (unloadedReplies[commentToDelete.id] || 0);
         const updatedProgress = {
           ...progress,
           comments: updatedComments,
@@ -611,15 +638,6 @@ const ProgressLikeCommentOfUserdashnoard = ({ progress, onProgressUpdate }) => {
             ...prev,
             [commentId]: normalizedReplies
           }));
-          
-          // Update the comment count to include replies if it doesn't already
-          if (progress.commentCount !== (progress.comments?.length || 0) + normalizedReplies.length) {
-            const updatedProgress = {
-              ...progress,
-              commentCount: (progress.comments?.length || 0) + normalizedReplies.length
-            };
-            onProgressUpdate(updatedProgress);
-          }
         } else {
           // Initialize with empty array if no replies
           setCommentReplies(prev => ({
@@ -916,12 +934,31 @@ const ProgressLikeCommentOfUserdashnoard = ({ progress, onProgressUpdate }) => {
                           ) : (
                             !loadingReplies[comment.id] && <p className="text-xs text-gray-500 italic">No replies yet.</p>
                           )}
+                          
+                          {unloadedReplies[comment.id] > 0 && !loadingReplies[comment.id] && (
+                            <button
+                              onClick={() => loadFullThread(comment.id)}
+                              className="text-xs text-blue-600 hover:text-blue-800"
+                            >
+                              View {unloadedReplies[comment.id]} more {unloadedReplies[comment.id] === 1 ? 'reply' : 'replies'}
+                            </button>
+                          )}
                         </div>
                       )}
                     </div>
                   </div>
                 </div>
               ))}
+              
+              {commentsCursor && (
+                <button
+                  onClick={loadMoreComments}
+                  disabled={isLoadingMoreComments}
+                  className="text-sm text-blue-600 hover:text-blue-800 disabled:opacity-50"
+                >
+                  {isLoadingMoreComments ? 'Loading...' : 'Load more comments'}
+                </button>
+              )}
             </div>
           ) : (
             !isLoadingComments && <p className="mb-4 text-sm text-gray-500 italic">No comments yet. Be the first to comment!</p>
@@ -173,10 +173,8 @@ const UserDashboard = () => {
           } else if (post.id) {
             // If commentCount isn't available, try to fetch comments for this post
             try {
-              const commentsResponse = await apiService.getCommentsByPost(post.id);
-              if (commentsResponse && Array.isArray(commentsResponse)) {
-                totalComments += commentsResponse.length;
-              }
+              const commentsPage = await apiService.getCommentsByPost(post.id);
+              totalComments += commentsPage.total !== null ? commentsPage.total : commentsPage.items.length;
             } catch (err) {
               console.error(`Error fetching comments for post ${post.id}:`, err);
             }
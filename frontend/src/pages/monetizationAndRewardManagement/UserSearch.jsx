@@ -14,7 +14,7 @@ const UserSearch = () => {
   const [loading, setLoading] = useState(true);
   const [currentPage, setCurrentPage] = useState(0);
   const [pageSize] = useState(10);
-  const [totalUsers, setTotalUsers] = useState(25);
+  const [totalUsers, setTotalUsers] = useState(0);
   const [currentUserId, setCurrentUserId] = useState('');
   const [followingIds, setFollowingIds] = useState([]);
   const [message, setMessage] = useState('');
@@ -28,13 +28,17 @@ const UserSearch = () => {
     const userId = localStorage.getItem('userId');
     if (userId) {
       setCurrentUserId(userId);
-      fetchFollowing(userId);
     }
     
     // Fetch all users on component mount
     fetchAllUsers();
   }, []);
 
+  useEffect(() => {
+    // Follow state is only needed for the users currently listed
+    fetchFollowing(users);
+  }, [users]);
+
   useEffect(() => {
     if (searchQuery.trim() !== '') {
       fetchUsers();
@@ -50,17 +54,7 @@ const UserSearch = () => {
       console.log('API Response:', response); // Debug response structure
       setUsers(response.users || []);
       
-      // Set the total users count from our knowledge that there are 25 users
-      setTotalUsers(25);
-      
-      // Backup logic if we need to extract it from API
-      if (response.totalCount !== undefined) {
-        console.log('Using totalCount from API:', response.totalCount);
-      } else if (response.total !== undefined) {
-        console.log('Using total from API:', response.total);
-      } else if (response.totalItems !== undefined) {
-        console.log('Using totalItems from API:', response.totalItems);
-      }
+      setTotalUsers(response.totalItems || 0);
     } catch (error) {
       console.error('Error fetching all users:', error);
       toast.error('Failed to load users. Please try again.');
@@ -70,13 +64,14 @@ const UserSearch = () => {
     }
   };
 
-  const fetchFollowing = async (userId) => {
+  // Marks which of the users on this page the current user follows
+  const fetchFollowing = async (pageUsers) => {
+    const userId = localStorage.getItem('userId');
+    const ids = pageUsers.map(user => user.id);
+    if (!userId || ids.length === 0) return;
     try {
-      const response = await apiService.getFollowing(userId);
-      if (response && response.following) {
-        const followingUserIds = response.following.map(user => user.id);
-        setFollowingIds(followingUserIds);
-      }
+      const followed = await apiService.getFollowedAmong(userId, ids);
+      setFollowingIds(prev => [...prev.filter(id => !ids.includes(id)), ...followed]);
     } catch (error) {
       console.error('Error fetching following:', error);
     }
@@ -90,15 +85,7 @@ const UserSearch = () => {
       console.log('Search Response:', response); // Debug response structure
       setUsers(response.users || []);
       
-      // We know there are 25 total users in the database
-      // For search results, we can either:
-      // 1. Keep total as 25 for consistency, or
-      // 2. Update based on filtered results
-      if (response.users) {
-        // Option 2: Update based on filtered/search results
-        // This assumes all filtered results are returned at once
-        setTotalUsers(response.users.length);
-      }
+      setTotalUsers(response.totalItems || 0);
     } catch (error) {
       console.error('Error searching users:', error);
       toast.error('Failed to search users. Please try again.');
@@ -79,7 +79,7 @@ api.interceptors.request.use(config => {
 
 // Response interceptor for consistent error handling
 api.interceptors.response.use(
-  response => response.data,
+  response => (response.config.rawResponse ? response : response.data),
   error => {
     const errorMessage = error.response?.data?.message || error.response?.data?.error || error.message;
     console.error("API Error:", errorMessage);
@@ -91,6 +91,42 @@ api.interceptors.response.use(
   }
 );
 
+// One page of a listing that pages through the X-Next-Cursor header, as { items, nextCursor, total };
+// pass nextCursor back for the following page. total is set where the endpoint sends X-Total-Count
+const fetchPage = async (url, params = {}) => {
+  const response = await api.get(url, { params, rawResponse: true });
+  const total = response.headers['x-total-count'];
+  return {
+    items: Array.isArray(response.data) ? response.data : [],
+    nextCursor: response.headers['x-next-cursor'] || null,
+    total: total !== undefined ? Number(total) : null
+  };
+};
+
+// The batch endpoints take at most users.batch.max-ids ids, so longer lists go in several requests
+const MAX_BATCH_IDS = 100;
+
+const inBatches = async (ids, fetchBatch) => {
+  const batches = [];
+  for (let i = 0; i < ids.length; i += MAX_BATCH_IDS) {
+    batches.push(ids.slice(i, i + MAX_BATCH_IDS));
+  }
+  const results = await Promise.all(batches.map(fetchBatch));
+  return results.flat();
+};
+
+// Walks every page and returns one array; only for admin screens that really need the whole listing
+const fetchAllPages = async (url, params = {}) => {
+  const items = [];
+  let cursor;
+  do {
+    const page = await fetchPage(url, { ...params, cursor, limit: 100 });
+    items.push(...page.items);
+    cursor = page.nextCursor;
+  } while (cursor);
+  return items;
+};
+
 const apiService = {
   // Authentication
   login: (identifier, password) => {
@@ -194,6 +230,9 @@ const apiService = {
   // Users
   getUserProfile: (userId) => api.get(`/users/${userId}`),
   getUserById: (userId) => api.get(`/users/${userId}`),
+  // Display summaries for up to 100 users in one request
+  // Summaries for any number of ids; the endpoint takes at most 100 per request
+  getUserSummaries: (ids) => inBatches(ids, (batch) => api.post("/users/batch", { ids: batch })),
   updateUserProfile: (userId, userData) => api.put(`/users/${userId}`, userData),
   
   // Password verification and change
@@ -202,7 +241,14 @@ const apiService = {
   },
   
   changePassword: (userId, passwordData) => {
-    return api.post(`/users/${userId}/change-password`, passwordData);
+    // Changing the password signs out other sessions; keep this one on the new token
+    return api.post(`/users/${userId}/change-password`, passwordData)
+      .then(data => {
+        if (data && data.token) {
+          localStorage.setItem("token", data.token);
+        }
+        return data;
+      });
   },
   
   // Follow/Unfollow functionality with multiple implementation attempts
@@ -222,18 +268,24 @@ const apiService = {
     return api.post(`/users/${currentUserId}/unfollow/${targetUserId}`);
   },
   
-  getFollowers: (userId) => 
-    api.get(`/users/${userId}/followers`),
+  // One page of follow summaries; pass the previous response's nextCursor for the next page
+  getFollowers: (userId, cursor, limit) => 
+    api.get(`/users/${userId}/followers`, { params: { cursor, limit } }),
   
-  getFollowing: (userId) => 
-    api.get(`/users/${userId}/following`),
+  getFollowing: (userId, cursor, limit) => 
+    api.get(`/users/${userId}/following`, { params: { cursor, limit } }),
+
+  // The subset of ids (the users on screen) that the user follows
+  getFollowedAmong: (userId, ids) =>
+    inBatches(ids, (batch) => api.post(`/users/${userId}/following/check`, { ids: batch })
+      .then(response => response.following || [])),
   
   // Add isFollowing check function
   isFollowing: (currentUserId, targetUserId) => {
     console.log(`Checking if user ${currentUserId} is following user ${targetUserId}`);
-    return api.get(`/users/${currentUserId}/following/${targetUserId}`)
+    return api.post(`/users/${currentUserId}/following/check`, { ids: [targetUserId] })
       .then(response => {
-        return { isFollowing: response.isFollowing || false };
+        return { isFollowing: (response.following || []).includes(targetUserId) };
       })
       .catch(error => {
         console.error("Error checking follow status:", error);
@@ -246,17 +298,22 @@ const apiService = {
 
   // Posts
   createPost: (postData) => api.post("/posts", postData),
-  getAllPosts: () => api.get("/posts"),
+  // Every post, for the admin screens
+  getAllPosts: () => fetchAllPages("/posts"),
+  // One page of the feed, newest first, as { items, nextCursor }
+  getPostsPage: (cursor) => fetchPage("/posts", { cursor }),
   getPostById: (postId) => api.get(`/posts/${postId}`),
   updatePost: (postId, data) => api.put(`/posts/${postId}`, data),
   deletePost: (postId) => api.delete(`/posts/${postId}`),
-  getPostsByUser: (userId) => api.get(`/posts/user/${userId}`),
-  getPostsByCategory: (category) => api.get(`/posts/category/${category}`),
-  searchPosts: (title) => api.get(`/posts/search?title=${title}`),
+  getPostsByUser: (userId) => fetchAllPages(`/posts/user/${userId}`),
+  getPostsByCategory: (category, cursor) => fetchPage(`/posts/category/${category}`, { cursor }),
+  searchPosts: (title, cursor) => fetchPage("/posts/search", { title, cursor }),
   toggleLike: (postId) => api.post(`/posts/${postId}/like`),
   
   // Comments
-  getCommentsByPost: (postId) => api.get(`/comments/post/${postId}`),
+  getCommentsByPost: (postId, cursor) => fetchPage(`/comments/post/${postId}`, { cursor }),
+  // Admin screens only: walks every page of the thread
+  getAllCommentsByPost: (postId) => fetchAllPages(`/comments/post/${postId}`),
   addComment: (comment) => api.post("/comments", comment),
   updateComment: (commentId, comment) => api.put(`/comments/${commentId}`, comment),
   deleteComment: (commentId) => api.delete(`/comments/${commentId}`),
@@ -294,7 +351,13 @@ const apiService = {
   unlikeProgress: (progressId) => api.delete(`/progress/${progressId}/like`),
   
   // Progress Comments
-  getProgressComments: (progressId) => api.get(`/progress/${progressId}/comments`),
+  // One page of top-level comments, each with its first `replies` replies and a replyCount
+  getProgressComments: (progressId, replies, cursor) =>
+    fetchPage(`/progress/${progressId}/comments`, { replies, cursor }),
+  // Admin screens only: walks every page of top-level comments
+  getAllProgressComments: (progressId) => fetchAllPages(`/progress/${progressId}/comments`),
+  // A comment and every reply beneath it, oldest first
+  getCommentThread: (commentId) => api.get(`/progress/comments/${commentId}/thread`),
     
   addProgressComment: (progressId, commentData) => {
     console.log(`Adding comment to progress ${progressId}:`, commentData);
@@ -394,28 +457,42 @@ const apiService = {
     params: { content }
   }),
   deleteMessage: (messageId) => api.delete(`/chat/messages/${messageId}`),
-  getRecentChats: () => {
+  markChatRead: (otherUserId) => {
+    const currentUserId = localStorage.getItem('userId');
+    return api.put(`/chat/messages/${currentUserId}/read`, null, {
+      params: { otherUserId }
+    });
+  },
+  // One page of recent chats as { chats, nextCursor }; pass nextCursor back for the following page
+  getRecentChats: (cursor) => {
     const currentUserId = localStorage.getItem('userId');
     // Explicitly log the API call for debugging
     console.log(`Fetching recent chats for user ${currentUserId}`);
     
     // Try the dedicated endpoint first
-    return api.get(`/chat/users/${currentUserId}/recent`)
-      .then(data => {
+    return api.get(`/chat/users/${currentUserId}/recent`, { params: { cursor }, rawResponse: true })
+      .then(response => {
+        const data = response.data;
         console.log("Raw recent chats data:", data);
-        if (data && Array.isArray(data) && data.length > 0) {
+        if (data && Array.isArray(data) && (data.length > 0 || cursor)) {
           // Filter out any self-chat entries
-          return data.filter(chat => chat.userId !== currentUserId);
+          return {
+            chats: data.filter(chat => chat.userId !== currentUserId),
+            nextCursor: response.headers['x-next-cursor'] || null
+          };
         }
         
         // If empty or not in expected format, fallback to derived recent chats
         console.log("No data from recent chats endpoint, falling back to messages");
-        return fetchDerivedRecentChats(currentUserId);
+        return fetchDerivedRecentChats(currentUserId).then(chats => ({ chats, nextCursor: null }));
       })
       .catch(error => {
         console.error("Error fetching recent chats:", error);
+        if (cursor) {
+          throw error;
+        }
         // Fallback to derived recent chats on error
-        return fetchDerivedRecentChats(currentUserId);
+        return fetchDerivedRecentChats(currentUserId).then(chats => ({ chats, nextCursor: null }));
       });
   },
 